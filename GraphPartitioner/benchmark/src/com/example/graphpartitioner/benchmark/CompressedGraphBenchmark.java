@@ -0,0 +1,135 @@
+package com.example.graphpartitioner.benchmark;
+
+import com.example.graphpartitioner.algorithms.PartitionInitializer;
+import com.example.graphpartitioner.algorithms.PartitionUtils;
+import com.example.graphpartitioner.io.GraphLoader;
+import com.example.graphpartitioner.model.CompressedGraph;
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+
+import java.io.IOException;
+
+/**
+ * Porównanie zwykłego grafu CSR ze skompresowanym formatem zapisu (CompressedGraph):
+ * rozmiar danych, przepustowość dekodowania przy liczeniu przeciętych krawędzi oraz syntetyczne
+ * przejście wyznaczające zyski wierzchołków. Nie jest to przebieg KL ani FM - algorytmy pracują
+ * na grafie zdekodowanym na stertę.
+ *
+ * Użycie: java -cp bin com.example.graphpartitioner.benchmark.CompressedGraphBenchmark plik [części] [powtórzenia]
+ */
+public class CompressedGraphBenchmark {
+    
+    private static final int WARMUP_ROUNDS = 5;
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Użycie: CompressedGraphBenchmark <plik .csrrg|.txt|.gcsr> [liczba części] [powtórzenia]");
+            return;
+        }
+        
+        int numParts = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int repeats = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        
+        Graph view = loadGraph(args[0]).getUndirectedView();
+        long start = System.nanoTime();
+        CompressedGraph compressed = CompressedGraph.fromGraph(view);
+        long compressMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        long csrBytes = 4L * (view.getVertexCount() + 1 + view.getAdjacencyLength());
+        System.out.println("Wierzchołki: " + view.getVertexCount() + ", wpisy sąsiedztwa: " + view.getAdjacencyLength());
+        System.out.println("Rozmiar CSR: " + csrBytes + " B, skompresowany: " + compressed.getMemoryBytes() + " B" +
+                           String.format(" (%.2fx mniej, kompresja %d ms)",
+                                         (double) csrBytes / compressed.getMemoryBytes(), compressMillis));
+        
+        Partition partition = PartitionInitializer.initializeSequential(view, numParts, 10);
+        long entries = (long) view.getAdjacencyLength() * repeats;
+        
+        // Liczenie przeciętych krawędzi
+        int csrCut = 0;
+        int compressedCut = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            csrCut = PartitionUtils.calculateCutEdges(view, partition);
+            compressedCut = PartitionUtils.calculateCutEdges(compressed, partition);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            csrCut = PartitionUtils.calculateCutEdges(view, partition);
+        }
+        long csrCutNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            compressedCut = PartitionUtils.calculateCutEdges(compressed, partition);
+        }
+        long compressedCutNanos = System.nanoTime() - start;
+        report("Przecięte krawędzie", csrCut, compressedCut, entries, csrCutNanos, compressedCutNanos);
+        
+        // Syntetyczne wyznaczanie zysków: liczba sąsiadów zewnętrznych minus wewnętrznych każdego wierzchołka
+        int[] assignments = partition.getAssignments();
+        long csrGain = 0;
+        long compressedGain = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            csrGain = gainSweep(view, assignments);
+            compressedGain = gainSweep(compressed, assignments);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            csrGain = gainSweep(view, assignments);
+        }
+        long csrGainNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            compressedGain = gainSweep(compressed, assignments);
+        }
+        long compressedGainNanos = System.nanoTime() - start;
+        report("Zyski wierzchołków (syntetycznie)", csrGain, compressedGain, entries, csrGainNanos, compressedGainNanos);
+    }
+    
+    private static Graph loadGraph(String filePath) throws IOException {
+        String name = filePath.toLowerCase();
+        if (name.endsWith(".csrrg")) {
+            return GraphLoader.loadGraphFromCsrrgText(filePath).getFirst();
+        }
+        if (name.endsWith(".gcsr")) {
+            return GraphLoader.loadGraphFromBinary(filePath).getFirst();
+        }
+        return GraphLoader.loadGraphFromAdjacencyMatrixText(filePath).getFirst();
+    }
+    
+    private static long gainSweep(Graph graph, int[] assignments) {
+        long total = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            int part = assignments[v];
+            int gain = 0;
+            for (int i = graph.getNeighborsStart(v); i < graph.getNeighborsEnd(v); i++) {
+                gain += assignments[graph.getNeighborAt(i)] != part ? 1 : -1;
+            }
+            total += gain;
+        }
+        return total;
+    }
+    
+    private static long gainSweep(CompressedGraph graph, int[] assignments) {
+        CompressedGraph.NeighborCursor cursor = graph.cursor();
+        long total = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            int part = assignments[v];
+            int gain = 0;
+            cursor.reset(v);
+            while (cursor.hasNext()) {
+                gain += assignments[cursor.next()] != part ? 1 : -1;
+            }
+            total += gain;
+        }
+        return total;
+    }
+    
+    private static void report(String name, long csrResult, long compressedResult, long entries,
+                               long csrNanos, long compressedNanos) {
+        System.out.println(String.format("%s: CSR %.1f M wpisów/s, skompresowany %.1f M wpisów/s (%.2fx)%s",
+                                         name,
+                                         entries * 1000.0 / csrNanos,
+                                         entries * 1000.0 / compressedNanos,
+                                         (double) csrNanos / compressedNanos,
+                                         csrResult == compressedResult ? "" : " - WYNIKI RÓŻNE!"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.graphpartitioner.algorithms;
+
+/**
+ * Termin zakończenia obliczeń dla algorytmów działających w ograniczonym czasie
+ */
+public final class Deadline {
+    
+    /**
+     * Brak ograniczenia czasu
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+    
+    private final long deadlineNanos;
+    private final boolean bounded;
+    
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+    
+    /**
+     * Tworzy termin upływający po podanej liczbie milisekund od teraz
+     */
+    public static Deadline afterMillis(long millis) {
+        return new Deadline(System.nanoTime() + Math.max(0, millis) * 1_000_000L, true);
+    }
+    
+    /**
+     * Sprawdza, czy termin już minął
+     */
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+    
+    /**
+     * Zwraca true, jeśli czas jest ograniczony
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+    
+    /**
+     * Zwraca pozostały czas w milisekundach (Long.MAX_VALUE bez ograniczenia)
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,329 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.PartConnectivity;
+import com.example.graphpartitioner.model.Partition;
+import com.example.graphpartitioner.utils.IndexedIntSet;
+
+/**
+ * Implementacja algorytmu Fiduccii-Mattheysesa do optymalizacji podziału grafu.
+ * Wierzchołki są trzymane w kubełkach indeksowanych zyskiem najlepszego ruchu,
+ * dzięki czemu najlepszy ruch jest dostępny w O(1), a po przeniesieniu
+ * wierzchołka przeliczani są tylko jego sąsiedzi.
+ */
+public class FiducciaMattheyses {
+    
+    /**
+     * Minimalna liczba kolejnych ruchów bez poprawy, po której przejście jest przerywane
+     */
+    private static final int MIN_NON_IMPROVING_MOVES = 50;
+    
+    /**
+     * Co tyle ruchów sprawdzany jest termin zakończenia
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    
+    /**
+     * Przy ograniczonym czasie przejście o zysku mniejszym niż ta część przeciętych krawędzi uznajemy za zastój
+     */
+    private static final double STALL_GAIN_RATIO = 0.001;
+    
+    /**
+     * Liczba kolejnych przejść w zastoju, po której optymalizacja z limitem czasu jest przerywana
+     */
+    private static final int STALL_PASSES = 2;
+    
+    private final Partition partition;
+    private final PartConnectivity connectivity;
+    private final RefinementWorkspace workspace;
+    private final Deadline deadline;
+    private final Graph view;
+    private final int numVertices;
+    
+    // Kubełki zysków z przestrzeni roboczej: dwukierunkowe listy wierzchołków o tym samym zysku
+    private final int gainOffset;
+    private final int[] bucketHeads;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;        // -1 jeśli wierzchołka nie ma w kubełku
+    private int maxBucket;
+    
+    // Najlepszy ruch każdego wierzchołka
+    private final int[] moveGain;
+    private final int[] moveTarget;      // -1 jeśli brak dozwolonego ruchu
+    
+    private FiducciaMattheyses(Graph graph, Partition partition, RefinementWorkspace workspace, Deadline deadline) {
+        this.view = graph.getUndirectedView();
+        this.partition = partition;
+        this.connectivity = PartitionUtils.getConnectivity(graph, partition);
+        this.workspace = workspace;
+        this.deadline = deadline;
+        this.numVertices = view.getVertexCount();
+        
+        int maxDegree = 0;
+        for (int v = 0; v < numVertices; v++) {
+            maxDegree = Math.max(maxDegree, view.getDegree(v));
+        }
+        
+        workspace.ensureBucketCapacity(numVertices, maxDegree);
+        this.gainOffset = maxDegree;
+        this.bucketHeads = workspace.bucketHeads;
+        this.next = workspace.next;
+        this.prev = workspace.prev;
+        this.bucketOf = workspace.bucketOf;
+        this.moveGain = workspace.moveGain;
+        this.moveTarget = workspace.moveTarget;
+        this.maxBucket = -1;
+    }
+    
+    /**
+     * Wyznacza najlepszy dozwolony ruch wierzchołka do części, w której ma sąsiadów
+     * Zysk = (liczba sąsiadów w części docelowej) - (liczba sąsiadów w obecnej części)
+     */
+    private void computeMove(int vertex) {
+        int currentPart = partition.getAssignment(vertex);
+        int internal = connectivity.countNeighbors(vertex, currentPart);
+        int bestTarget = -1;
+        int bestCount = 0;
+        int[] partSizes = partition.getPartSizes();
+        
+        for (int i = 0; i < connectivity.getAdjacentPartCount(vertex); i++) {
+            int part = connectivity.getAdjacentPart(vertex, i);
+            int count = connectivity.getNeighborCount(vertex, i);
+            
+            if (part == currentPart || count < bestCount) continue;
+            
+            // Przy równym zysku preferuj mniejszą część
+            if (count == bestCount && bestTarget != -1 && partSizes[part] >= partSizes[bestTarget]) continue;
+            
+            if (PartitionUtils.canMoveVertex(partition, vertex, part)) {
+                bestTarget = part;
+                bestCount = count;
+            }
+        }
+        
+        moveTarget[vertex] = bestTarget;
+        moveGain[vertex] = bestCount - internal;
+    }
+    
+    private void insert(int vertex) {
+        int bucket = moveGain[vertex] + gainOffset;
+        int head = bucketHeads[bucket];
+        
+        next[vertex] = head;
+        prev[vertex] = -1;
+        if (head != -1) {
+            prev[head] = vertex;
+        }
+        bucketHeads[bucket] = vertex;
+        bucketOf[vertex] = bucket;
+        
+        if (bucket > maxBucket) {
+            maxBucket = bucket;
+        }
+    }
+    
+    private void remove(int vertex) {
+        int bucket = bucketOf[vertex];
+        
+        if (prev[vertex] != -1) {
+            next[prev[vertex]] = next[vertex];
+        } else {
+            bucketHeads[bucket] = next[vertex];
+        }
+        if (next[vertex] != -1) {
+            prev[next[vertex]] = prev[vertex];
+        }
+        bucketOf[vertex] = -1;
+    }
+    
+    /**
+     * Zdejmuje wierzchołek o największym zysku, zwraca -1 gdy kubełki są puste
+     */
+    private int popMax() {
+        while (maxBucket >= 0 && bucketHeads[maxBucket] == -1) {
+            maxBucket--;
+        }
+        if (maxBucket < 0) {
+            return -1;
+        }
+        
+        int vertex = bucketHeads[maxBucket];
+        remove(vertex);
+        return vertex;
+    }
+    
+    /**
+     * Przelicza ruch wierzchołka i aktualizuje jego pozycję w kubełkach
+     */
+    private void update(int vertex) {
+        if (bucketOf[vertex] != -1) {
+            remove(vertex);
+        }
+        computeMove(vertex);
+        if (moveTarget[vertex] != -1) {
+            insert(vertex);
+        }
+    }
+    
+    /**
+     * Wykonuje jedno przejście algorytmu Fiduccii-Mattheysesa
+     * Zwraca zysk zastosowanego prefiksu ruchów (0 jeśli brak poprawy)
+     */
+    private int pass() {
+        workspace.beginPass();
+        
+        // Tylko wierzchołki graniczne mają ruch do części, w której mają sąsiadów
+        IndexedIntSet boundary = connectivity.getBoundary();
+        for (int i = 0; i < boundary.size(); i++) {
+            update(boundary.get(i));
+        }
+        
+        int maxNonImprovingMoves = Math.max(MIN_NON_IMPROVING_MOVES, numVertices / 100);
+        int cumulativeGain = 0;
+        int bestGain = 0;
+        int bestPrefixLength = 0;
+        
+        int vertex;
+        while ((vertex = popMax()) != -1) {
+            int targetPart = moveTarget[vertex];
+            
+            // Rozmiary części mogły się zmienić od wyznaczenia ruchu
+            if (!PartitionUtils.canMoveVertex(partition, vertex, targetPart)) {
+                update(vertex);
+                continue;
+            }
+            
+            // Przenieś wierzchołek i zablokuj go do końca przejścia
+            workspace.logMove(vertex, partition.getAssignment(vertex));
+            partition.setAssignment(vertex, targetPart);
+            workspace.mark(vertex);
+            
+            cumulativeGain += moveGain[vertex];
+            if (cumulativeGain > bestGain) {
+                bestGain = cumulativeGain;
+                bestPrefixLength = workspace.getMoveCount();
+            } else if (workspace.getMoveCount() - bestPrefixLength >= maxNonImprovingMoves) {
+                break;
+            }
+            
+            // Po upływie czasu zostaje najlepszy dotąd prefiks ruchów
+            if (workspace.getMoveCount() % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+                break;
+            }
+            
+            // Zyski zmieniają się tylko u sąsiadów przeniesionego wierzchołka
+            for (int i = view.getNeighborsStart(vertex); i < view.getNeighborsEnd(vertex); i++) {
+                int neighbor = view.getNeighborAt(i);
+                if (!workspace.isMarked(neighbor)) {
+                    update(neighbor);
+                }
+            }
+        }
+        
+        // Cofnij ruchy wykonane po najlepszym prefiksie
+        workspace.rollback(partition, bestPrefixLength);
+        
+        // Opróżnij kubełki, aby przestrzeń robocza była gotowa do ponownego użycia
+        while (popMax() != -1) {
+            // Zdejmowanie pozostałych wierzchołków
+        }
+        
+        return bestGain;
+    }
+    
+    private int run(int maxIterations, boolean verbose) {
+        int iteration = 0;
+        int stalledPasses = 0;
+        boolean improvement = true;
+        
+        while (improvement && iteration < maxIterations && !deadline.isExpired()) {
+            int gain = pass();
+            improvement = gain > 0;
+            iteration++;
+            
+            if (verbose) {
+                if (improvement) {
+                    System.out.println("Iteracja FM " + iteration +
+                                     ": Przecięte krawędzie = " + partition.getCutEdges());
+                } else {
+                    System.out.println("Brak poprawy w iteracji FM " + iteration +
+                                     ", koniec algorytmu.");
+                }
+            }
+            
+            if (deadline.isBounded()) {
+                stalledPasses = gain < (partition.getCutEdges() + gain) * STALL_GAIN_RATIO ? stalledPasses + 1 : 0;
+                if (stalledPasses >= STALL_PASSES) {
+                    break;
+                }
+            }
+        }
+        
+        return iteration;
+    }
+    
+    /**
+     * Główna funkcja algorytmu Fiduccii-Mattheysesa
+     * Optymalizuje podział grafu poprzez iteracyjne przejścia
+     */
+    public static void optimizeWithFiducciaMattheyses(Graph graph, Partition partition, int maxIterations) {
+        optimizeWithFiducciaMattheyses(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Wersja algorytmu korzystająca z przestrzeni roboczej współdzielonej między próbami
+     */
+    public static void optimizeWithFiducciaMattheyses(Graph graph, Partition partition, int maxIterations,
+                                                      RefinementWorkspace workspace) {
+        if (graph == null || partition == null ||
+            graph.getVertexCount() == 0 || partition.getPartCount() <= 1) {
+            return;
+        }
+        
+        if (maxIterations <= 0) {
+            maxIterations = graph.getVertexCount() > 5000 ? 20 : 50;
+        }
+        
+        FiducciaMattheyses engine = new FiducciaMattheyses(graph, partition, workspace, Deadline.NONE);
+        System.out.println("Początkowa liczba przeciętych krawędzi: " + partition.getCutEdges());
+        
+        int iterations = engine.run(maxIterations, true);
+        
+        System.out.println("Wyjście z algorytmu FM po " + iterations + " iteracjach.");
+        System.out.println("Końcowa liczba przeciętych krawędzi: " + partition.getCutEdges());
+    }
+    
+    /**
+     * Wersja algorytmu bez wypisywania komunikatów
+     */
+    public static void optimizeWithFiducciaMattheysesSilent(Graph graph, Partition partition, int maxIterations) {
+        optimizeWithFiducciaMattheysesSilent(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Wersja bez komunikatów korzystająca z przestrzeni roboczej współdzielonej między próbami
+     */
+    public static void optimizeWithFiducciaMattheysesSilent(Graph graph, Partition partition, int maxIterations,
+                                                            RefinementWorkspace workspace) {
+        optimizeWithFiducciaMattheysesSilent(graph, partition, maxIterations, workspace, Deadline.NONE);
+    }
+    
+    /**
+     * Wersja bez komunikatów ograniczona terminem zakończenia
+     * Przy ograniczonym czasie kończy się też, gdy kolejne przejścia przestają przynosić istotną poprawę
+     */
+    public static void optimizeWithFiducciaMattheysesSilent(Graph graph, Partition partition, int maxIterations,
+                                                            RefinementWorkspace workspace, Deadline deadline) {
+        if (graph == null || partition == null ||
+            graph.getVertexCount() == 0 || partition.getPartCount() <= 1) {
+            return;
+        }
+        
+        if (maxIterations <= 0) {
+            maxIterations = graph.getVertexCount() > 5000 ? 20 : 50;
+        }
+        
+        new FiducciaMattheyses(graph, partition, workspace, deadline).run(maxIterations, false);
+    }
+}
\ No newline at end of file
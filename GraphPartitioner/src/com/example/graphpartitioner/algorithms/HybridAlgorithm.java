@@ -3,6 +3,16 @@ package com.example.graphpartitioner.algorithms;
 import com.example.graphpartitioner.model.Graph;
 import com.example.graphpartitioner.model.Partition;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 /**
  * Algorytm hybrydowy łączący różne metody inicjalizacji i optymalizacji
  */
@@ -13,7 +23,7 @@ public class HybridAlgorithm {
      */
     private static int calculateAdaptiveRandomTrials(Graph graph, int numParts, int currentBestCutEdges) {
         // Oblicz gęstość grafu
-        double density = graph.getDensity();
+        double density = graph.getUndirectedView().getDensity();
         
         // Dla rzadszych grafów, próbuj więcej losowych inicjalizacji
         int baseTrials = 3; // domyślnie
@@ -33,7 +43,7 @@ public class HybridAlgorithm {
         
         // Jeśli nie znaleźliśmy dobrego rozwiązania, próbuj więcej
         if (currentBestCutEdges == Integer.MAX_VALUE || 
-            currentBestCutEdges > graph.getEdgeCount() / 2) {
+            currentBestCutEdges > graph.getUndirectedView().getEdgeCount() / 2) {
             baseTrials += 1;
         }
         
@@ -48,14 +58,24 @@ public class HybridAlgorithm {
      * Główna funkcja znajdująca najlepszy podział za pomocą metod hybrydowych
      */
     public static Partition findBestPartitionHybrid(Graph graph, int numParts, int marginPercent) {
+        return findBestPartitionHybrid(graph, numParts, marginPercent, RefinementMethod.KERNIGHAN_LIN);
+    }
+    
+    /**
+     * Wersja algorytmu hybrydowego z wybraną metodą optymalizacji
+     */
+    public static Partition findBestPartitionHybrid(Graph graph, int numParts, int marginPercent,
+                                                    RefinementMethod refinement) {
         if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 || marginPercent < 0) {
             throw new IllegalArgumentException("Invalid parameters for hybrid algorithm");
         }
         
         Partition bestPartition = null;
         int bestCutEdges = Integer.MAX_VALUE;
+        RefinementWorkspace workspace = new RefinementWorkspace(); // Wspólna dla wszystkich prób
         
-        System.out.println("Szukanie optymalnego podziału grafu metodą hybrydową...");
+        System.out.println("Szukanie optymalnego podziału grafu metodą hybrydową (optymalizacja: " +
+                         refinement + ")...");
         
         // 1. Najpierw wypróbuj deterministyczne strategie
         System.out.println("Krok 1: Wypróbowywanie deterministycznych strategii...");
@@ -65,7 +85,7 @@ public class HybridAlgorithm {
         Partition moduloPartition = PartitionInitializer.initializeModulo(graph, numParts, marginPercent);
         if (moduloPartition != null) {
             System.out.println("    Początkowa liczba przeciętych krawędzi: " + moduloPartition.getCutEdges());
-            KernighanLin.optimizeWithKernighanLin(graph, moduloPartition, 0);
+            refinement.optimize(graph, moduloPartition, 0, workspace);
             System.out.println("    Końcowa liczba przeciętych krawędzi: " + moduloPartition.getCutEdges());
             
             if (moduloPartition.getCutEdges() < bestCutEdges) {
@@ -79,7 +99,7 @@ public class HybridAlgorithm {
         Partition sequentialPartition = PartitionInitializer.initializeSequential(graph, numParts, marginPercent);
         if (sequentialPartition != null) {
             System.out.println("    Początkowa liczba przeciętych krawędzi: " + sequentialPartition.getCutEdges());
-            KernighanLin.optimizeWithKernighanLin(graph, sequentialPartition, 0);
+            refinement.optimize(graph, sequentialPartition, 0, workspace);
             System.out.println("    Końcowa liczba przeciętych krawędzi: " + sequentialPartition.getCutEdges());
             
             if (sequentialPartition.getCutEdges() < bestCutEdges) {
@@ -93,7 +113,7 @@ public class HybridAlgorithm {
         Partition dfsPartition = PartitionInitializer.initializeDFS(graph, numParts, marginPercent);
         if (dfsPartition != null) {
             System.out.println("    Początkowa liczba przeciętych krawędzi: " + dfsPartition.getCutEdges());
-            KernighanLin.optimizeWithKernighanLin(graph, dfsPartition, 0);
+            refinement.optimize(graph, dfsPartition, 0, workspace);
             System.out.println("    Końcowa liczba przeciętych krawędzi: " + dfsPartition.getCutEdges());
             
             if (dfsPartition.getCutEdges() < bestCutEdges) {
@@ -102,6 +122,18 @@ public class HybridAlgorithm {
             }
         }
         
+        // 1.4 Strategia wielopoziomowa
+        System.out.println("  - Strategia wielopoziomowa...");
+        Partition multilevelPartition = MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent);
+        System.out.println("    Początkowa liczba przeciętych krawędzi: " + multilevelPartition.getCutEdges());
+        refinement.optimize(graph, multilevelPartition, 0, workspace);
+        System.out.println("    Końcowa liczba przeciętych krawędzi: " + multilevelPartition.getCutEdges());
+        
+        if (multilevelPartition.getCutEdges() < bestCutEdges) {
+            bestCutEdges = multilevelPartition.getCutEdges();
+            bestPartition = multilevelPartition;
+        }
+        
         // 2. Następnie wypróbuj losowe inicjalizacje z adaptacyjną liczbą prób
         System.out.println("Krok 2: Wypróbowywanie losowych inicjalizacji...");
         
@@ -120,7 +152,7 @@ public class HybridAlgorithm {
             Partition randomPartition = PartitionInitializer.initializeRandom(graph, numParts, marginPercent);
             if (randomPartition != null) {
                 System.out.println("    Początkowa liczba przeciętych krawędzi: " + randomPartition.getCutEdges());
-                KernighanLin.optimizeWithKernighanLin(graph, randomPartition, 0);
+                refinement.optimize(graph, randomPartition, 0, workspace);
                 System.out.println("    Końcowa liczba przeciętych krawędzi: " + randomPartition.getCutEdges());
                 
                 if (randomPartition.getCutEdges() < bestCutEdges) {
@@ -155,7 +187,7 @@ public class HybridAlgorithm {
                 if (perturbed != null) {
                     System.out.println("    Początkowa liczba przeciętych krawędzi po perturbacji: " + 
                                      perturbed.getCutEdges());
-                    KernighanLin.optimizeWithKernighanLin(graph, perturbed, 0);
+                    refinement.optimize(graph, perturbed, 0, workspace);
                     System.out.println("    Końcowa liczba przeciętych krawędzi: " + perturbed.getCutEdges());
                     
                     if (perturbed.getCutEdges() < bestCutEdges) {
@@ -169,14 +201,6 @@ public class HybridAlgorithm {
         
         if (bestPartition != null) {
             System.out.println("Najlepszy znaleziony podział ma " + bestCutEdges + " przeciętych krawędzi.");
-            
-            // Weryfikacja poprawności końcowego podziału
-            int verification = PartitionUtils.calculateCutEdges(graph, bestPartition);
-            if (verification != bestPartition.getCutEdges()) {
-                System.out.println("Końcowa weryfikacja: korekta liczby przeciętych krawędzi z " + 
-                                 bestPartition.getCutEdges() + " na " + verification);
-                bestPartition.setCutEdges(verification);
-            }
         } else {
             System.err.println("Nie udało się znaleźć żadnego podziału!");
         }
@@ -188,23 +212,33 @@ public class HybridAlgorithm {
      * Uproszczona wersja algorytmu hybrydowego (bez komunikatów)
      */
     public static Partition findBestPartitionHybridSilent(Graph graph, int numParts, int marginPercent) {
+        return findBestPartitionHybridSilent(graph, numParts, marginPercent, RefinementMethod.KERNIGHAN_LIN);
+    }
+    
+    /**
+     * Uproszczona wersja algorytmu hybrydowego z wybraną metodą optymalizacji
+     */
+    public static Partition findBestPartitionHybridSilent(Graph graph, int numParts, int marginPercent,
+                                                          RefinementMethod refinement) {
         if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 || marginPercent < 0) {
             return null;
         }
         
         Partition bestPartition = null;
         int bestCutEdges = Integer.MAX_VALUE;
+        RefinementWorkspace workspace = new RefinementWorkspace(); // Wspólna dla wszystkich prób
         
         // 1. Strategie deterministyczne
         Partition[] deterministicStrategies = {
             PartitionInitializer.initializeModulo(graph, numParts, marginPercent),
             PartitionInitializer.initializeSequential(graph, numParts, marginPercent),
-            PartitionInitializer.initializeDFS(graph, numParts, marginPercent)
+            PartitionInitializer.initializeDFS(graph, numParts, marginPercent),
+            MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent)
         };
         
         for (Partition partition : deterministicStrategies) {
             if (partition != null) {
-                KernighanLin.optimizeWithKernighanLinSilent(graph, partition, 0);
+                refinement.optimizeSilent(graph, partition, 0, workspace);
                 if (partition.getCutEdges() < bestCutEdges) {
                     bestCutEdges = partition.getCutEdges();
                     bestPartition = partition;
@@ -219,7 +253,7 @@ public class HybridAlgorithm {
         for (int i = 0; i < randomTrials; i++) {
             Partition randomPartition = PartitionInitializer.initializeRandom(graph, numParts, marginPercent);
             if (randomPartition != null) {
-                KernighanLin.optimizeWithKernighanLinSilent(graph, randomPartition, 0);
+                refinement.optimizeSilent(graph, randomPartition, 0, workspace);
                 if (randomPartition.getCutEdges() < bestCutEdges) {
                     bestCutEdges = randomPartition.getCutEdges();
                     bestPartition = randomPartition;
@@ -238,7 +272,7 @@ public class HybridAlgorithm {
                     Perturbation.perturbPartitionSmart(bestPartition, graph, ratio);
                 
                 if (perturbed != null) {
-                    KernighanLin.optimizeWithKernighanLinSilent(graph, perturbed, 0);
+                    refinement.optimizeSilent(graph, perturbed, 0, workspace);
                     if (perturbed.getCutEdges() < bestCutEdges) {
                         bestCutEdges = perturbed.getCutEdges();
                         bestPartition = perturbed;
@@ -247,11 +281,272 @@ public class HybridAlgorithm {
             }
         }
         
-        // Weryfikacja końcowa
+        return bestPartition;
+    }
+    
+    /**
+     * Wersja algorytmu hybrydowego z limitem czasu (algorytm "anytime")
+     * Uruchamia kolejne próby i perturbacje aż do upływu czasu i zawsze zwraca
+     * najlepszy znaleziony dotąd podział
+     */
+    public static Partition findBestPartitionHybridWithDeadline(Graph graph, int numParts, int marginPercent,
+                                                                RefinementMethod refinement, long timeBudgetMillis) {
+        if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 || marginPercent < 0) {
+            return null;
+        }
+        
+        Deadline deadline = Deadline.afterMillis(timeBudgetMillis);
+        RefinementWorkspace workspace = new RefinementWorkspace(); // Wspólna dla wszystkich prób
+        Partition bestPartition = null;
+        int trials = 0;
+        
+        System.out.println("Szukanie podziału metodą hybrydową z limitem czasu " + timeBudgetMillis + " ms...");
+        
+        // 1. Strategie deterministyczne - pierwsza jest wykonywana zawsze, więc jest nią tania inicjalizacja
+        // sekwencyjna; algorytm wielopoziomowy sprawdza termin przy zgrubianiu i optymalizacji poziomów
+        List<Supplier<Partition>> strategies = new ArrayList<>();
+        strategies.add(() -> PartitionInitializer.initializeSequential(graph, numParts, marginPercent));
+        strategies.add(() -> MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent, deadline));
+        strategies.add(() -> PartitionInitializer.initializeDFS(graph, numParts, marginPercent));
+        strategies.add(() -> PartitionInitializer.initializeModulo(graph, numParts, marginPercent));
+        
+        for (Supplier<Partition> strategy : strategies) {
+            if (bestPartition != null && deadline.isExpired()) break;
+            
+            Partition partition = strategy.get();
+            if (partition != null) {
+                refinement.optimizeSilent(graph, partition, Integer.MAX_VALUE, workspace, deadline);
+                trials++;
+                if (bestPartition == null || partition.getCutEdges() < bestPartition.getCutEdges()) {
+                    bestPartition = partition;
+                }
+            }
+        }
+        
+        // 2. Na przemian losowe inicjalizacje i perturbacje najlepszego wyniku aż do upływu czasu
+        int round = 0;
+        while (bestPartition != null && !deadline.isExpired()) {
+            Partition candidate;
+            switch (round % 3) {
+                case 0:
+                    candidate = PartitionInitializer.initializeRandom(graph, numParts, marginPercent);
+                    break;
+                case 1:
+                    candidate = Perturbation.perturbPartition(bestPartition, graph, 0.15);
+                    break;
+                default:
+                    candidate = Perturbation.perturbPartitionSmart(bestPartition, graph, 0.1);
+            }
+            round++;
+            
+            if (candidate != null) {
+                refinement.optimizeSilent(graph, candidate, Integer.MAX_VALUE, workspace, deadline);
+                trials++;
+                if (candidate.getCutEdges() < bestPartition.getCutEdges()) {
+                    bestPartition = candidate;
+                    System.out.println("  Poprawa po " + trials + " próbach: " + bestPartition.getCutEdges() +
+                                     " przeciętych krawędzi");
+                }
+            }
+        }
+        
         if (bestPartition != null) {
-            bestPartition.setCutEdges(PartitionUtils.calculateCutEdges(graph, bestPartition));
+            System.out.println("Koniec czasu po " + trials + " próbach, najlepszy wynik: " +
+                             bestPartition.getCutEdges() + " przeciętych krawędzi");
         }
         
         return bestPartition;
     }
+    
+    /**
+     * Równoległa wersja algorytmu hybrydowego w puli o podanej liczbie wątków
+     */
+    public static Partition findBestPartitionHybridParallel(Graph graph, int numParts, int marginPercent,
+                                                            RefinementMethod refinement, int numThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            return findBestPartitionHybridParallel(graph, numParts, marginPercent, refinement, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Równoległa wersja algorytmu hybrydowego (portfel strategii)
+     * Wszystkie strategie początkowe są optymalizowane jednocześnie, a każda poprawa
+     * jest publikowana atomowo; perturbacje startują równolegle od najlepszego wyniku
+     */
+    public static Partition findBestPartitionHybridParallel(Graph graph, int numParts, int marginPercent,
+                                                            RefinementMethod refinement, ExecutorService executor) {
+        if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 || marginPercent < 0) {
+            return null;
+        }
+        
+        AtomicReference<Partition> best = new AtomicReference<>();
+        ThreadLocal<RefinementWorkspace> workspaces = ThreadLocal.withInitial(RefinementWorkspace::new);
+        
+        // Widok nieskierowany jest budowany raz, zanim wątki puli zaczną go jednocześnie używać
+        graph.getUndirectedView();
+        
+        // 1. Wszystkie strategie początkowe jednocześnie
+        int randomTrials = calculateAdaptiveRandomTrials(graph, numParts, Integer.MAX_VALUE);
+        randomTrials = Math.min(randomTrials, graph.getVertexCount() > 10000 ? 2 : randomTrials);
+        
+        List<Callable<Partition>> strategies = new ArrayList<>();
+        strategies.add(() -> PartitionInitializer.initializeModulo(graph, numParts, marginPercent));
+        strategies.add(() -> PartitionInitializer.initializeSequential(graph, numParts, marginPercent));
+        strategies.add(() -> PartitionInitializer.initializeDFS(graph, numParts, marginPercent));
+        strategies.add(() -> MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent));
+        for (int i = 0; i < randomTrials; i++) {
+            strategies.add(() -> PartitionInitializer.initializeRandom(graph, numParts, marginPercent));
+        }
+        
+        runPortfolio(executor, strategies, graph, refinement, workspaces, best, Deadline.NONE);
+        
+        // 2. Perturbacje równolegle od najlepszego dotąd wyniku
+        if (best.get() != null) {
+            int numPerturbations = graph.getVertexCount() > 1000 ? 3 : 2;
+            List<Callable<Partition>> perturbations = new ArrayList<>();
+            
+            for (int i = 0; i < numPerturbations; i++) {
+                double ratio = (i == 0) ? 0.15 : 0.1;
+                boolean smart = i % 2 != 0;
+                perturbations.add(() -> smart ?
+                    Perturbation.perturbPartitionSmart(best.get(), graph, ratio) :
+                    Perturbation.perturbPartition(best.get(), graph, ratio));
+            }
+            
+            runPortfolio(executor, perturbations, graph, refinement, workspaces, best, Deadline.NONE);
+        }
+        
+        return best.get();
+    }
+    
+    /**
+     * Równoległa wersja algorytmu hybrydowego z limitem czasu w puli o podanej liczbie wątków
+     */
+    public static Partition findBestPartitionHybridParallelWithDeadline(Graph graph, int numParts, int marginPercent,
+                                                                        RefinementMethod refinement,
+                                                                        long timeBudgetMillis, int numThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            return findBestPartitionHybridParallelWithDeadline(graph, numParts, marginPercent, refinement,
+                                                               timeBudgetMillis, executor, Math.max(1, numThreads));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Równoległa wersja algorytmu hybrydowego z limitem czasu
+     * Strategie deterministyczne są optymalizowane jednocześnie, a potem kolejne rundy losowych
+     * inicjalizacji i perturbacji (po jednej na wątek) trwają aż do upływu czasu
+     */
+    public static Partition findBestPartitionHybridParallelWithDeadline(Graph graph, int numParts, int marginPercent,
+                                                                        RefinementMethod refinement,
+                                                                        long timeBudgetMillis,
+                                                                        ExecutorService executor, int roundSize) {
+        if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 || marginPercent < 0) {
+            return null;
+        }
+        
+        Deadline deadline = Deadline.afterMillis(timeBudgetMillis);
+        AtomicReference<Partition> best = new AtomicReference<>();
+        ThreadLocal<RefinementWorkspace> workspaces = ThreadLocal.withInitial(RefinementWorkspace::new);
+        
+        System.out.println("Szukanie podziału równoległą metodą hybrydową z limitem czasu " + timeBudgetMillis +
+                         " ms...");
+        graph.getUndirectedView();
+        
+        // 1. Strategie deterministyczne jednocześnie; po upływie czasu nowe nie startują,
+        // o ile jakiś wynik już jest
+        List<Callable<Partition>> strategies = new ArrayList<>();
+        strategies.add(() -> PartitionInitializer.initializeSequential(graph, numParts, marginPercent));
+        strategies.add(() -> MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent, deadline));
+        strategies.add(() -> PartitionInitializer.initializeDFS(graph, numParts, marginPercent));
+        strategies.add(() -> PartitionInitializer.initializeModulo(graph, numParts, marginPercent));
+        runPortfolio(executor, strategies, graph, refinement, workspaces, best, deadline);
+        
+        // 2. Rundy losowych inicjalizacji i perturbacji najlepszego wyniku aż do upływu czasu
+        int trials = strategies.size();
+        int round = 0;
+        while (best.get() != null && !deadline.isExpired() && !Thread.currentThread().isInterrupted()) {
+            List<Callable<Partition>> candidates = new ArrayList<>(roundSize);
+            for (int i = 0; i < roundSize; i++) {
+                switch ((round + i) % 3) {
+                    case 0:
+                        candidates.add(() -> PartitionInitializer.initializeRandom(graph, numParts, marginPercent));
+                        break;
+                    case 1:
+                        candidates.add(() -> Perturbation.perturbPartition(best.get(), graph, 0.15));
+                        break;
+                    default:
+                        candidates.add(() -> Perturbation.perturbPartitionSmart(best.get(), graph, 0.1));
+                }
+            }
+            round += roundSize;
+            runPortfolio(executor, candidates, graph, refinement, workspaces, best, deadline);
+            trials += roundSize;
+        }
+        
+        if (best.get() != null) {
+            System.out.println("Koniec czasu po " + trials + " próbach, najlepszy wynik: " +
+                             best.get().getCutEdges() + " przeciętych krawędzi");
+        }
+        
+        return best.get();
+    }
+    
+    /**
+     * Uruchamia strategie w puli, optymalizuje każdy wynik i czeka na zakończenie wszystkich
+     * Każdy wątek korzysta z własnej przestrzeni roboczej; po upływie terminu kolejne strategie
+     * nie startują, o ile jakiś wynik już jest
+     */
+    private static void runPortfolio(ExecutorService executor, List<Callable<Partition>> strategies, Graph graph,
+                                     RefinementMethod refinement, ThreadLocal<RefinementWorkspace> workspaces,
+                                     AtomicReference<Partition> best, Deadline deadline) {
+        int maxIterations = deadline.isBounded() ? Integer.MAX_VALUE : 0;
+        List<Callable<Void>> tasks = new ArrayList<>(strategies.size());
+        for (Callable<Partition> strategy : strategies) {
+            tasks.add(() -> {
+                if (best.get() != null && deadline.isExpired()) {
+                    return null;
+                }
+                Partition partition = strategy.call();
+                if (partition != null) {
+                    refinement.optimizeSilent(graph, partition, maxIterations, workspaces.get(), deadline);
+                    publishIfBetter(best, partition);
+                }
+                return null;
+            });
+        }
+        
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            // Przerwanie kończy wyszukiwanie z najlepszym dotąd wynikiem
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Hybrid strategy failed", cause);
+        }
+    }
+    
+    /**
+     * Zastępuje najlepszy podział, jeśli kandydat ma mniej przeciętych krawędzi
+     */
+    private static void publishIfBetter(AtomicReference<Partition> best, Partition candidate) {
+        Partition current;
+        do {
+            current = best.get();
+            if (current != null && current.getCutEdges() <= candidate.getCutEdges()) {
+                return;
+            }
+        } while (!best.compareAndSet(current, candidate));
+    }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.example.graphpartitioner.algorithms;
 
 import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.PartConnectivity;
 import com.example.graphpartitioner.model.Partition;
-
-import java.util.*;
+import com.example.graphpartitioner.utils.IndexedIntSet;
 
 /**
  * Implementacja algorytmu Kernighana-Lina do optymalizacji podziału grafu
@@ -11,44 +11,32 @@ import java.util.*;
 public class KernighanLin {
     
     /**
-     * Struktura reprezentująca ruch w algorytmie
+     * Przy ograniczonym czasie przejście o zysku mniejszym niż ta część przeciętych krawędzi uznajemy za zastój
      */
-    private static class Move {
-        int vertex;
-        int oldPart;
-        int newPart;
-        int gain;
-        
-        Move(int vertex, int oldPart, int newPart, int gain) {
-            this.vertex = vertex;
-            this.oldPart = oldPart;
-            this.newPart = newPart;
-            this.gain = gain;
-        }
-    }
+    private static final double STALL_GAIN_RATIO = 0.001;
+    
+    /**
+     * Liczba kolejnych przejść w zastoju, po której optymalizacja z limitem czasu jest przerywana
+     */
+    private static final int STALL_PASSES = 2;
     
     /**
      * Oblicza zysk z przeniesienia wierzchołka do innej części
      * Zysk = (liczba sąsiadów w nowej części) - (liczba sąsiadów w obecnej części)
      */
-    private static int calculateGain(Graph graph, Partition partition, int vertex, int newPart) {
+    private static int calculateGain(PartConnectivity connectivity, Partition partition, int vertex, int newPart) {
         int currentPart = partition.getAssignment(vertex);
         
-        // Liczba sąsiadów w obecnej części
-        int neighborsInCurrent = PartitionUtils.countNeighborsInPart(graph, partition, vertex, currentPart);
-        
-        // Liczba sąsiadów w nowej części
-        int neighborsInNew = PartitionUtils.countNeighborsInPart(graph, partition, vertex, newPart);
-        
-        // Zysk
-        return neighborsInNew - neighborsInCurrent;
+        // Liczniki sąsiadów są utrzymywane przyrostowo przez podział
+        return connectivity.countNeighbors(vertex, newPart) - connectivity.countNeighbors(vertex, currentPart);
     }
     
     /**
      * Wykonuje jedno przejście algorytmu Kernighana-Lina
      * Zwraca true jeśli dokonano poprawy
      */
-    private static boolean kernighanLinPass(Graph graph, Partition partition) {
+    private static boolean kernighanLinPass(Graph graph, Partition partition, RefinementWorkspace workspace,
+                                            Deadline deadline) {
         int numVertices = graph.getVertexCount();
         int numParts = partition.getPartCount();
         
@@ -56,31 +44,38 @@ public class KernighanLin {
             return false;
         }
         
-        // Struktury tymczasowe
-        List<Move> moves = new ArrayList<>();
-        int[] cumulativeGain = new int[numVertices + 1];
-        boolean[] moved = new boolean[numVertices];
+        PartConnectivity connectivity = PartitionUtils.getConnectivity(graph, partition);
+        IndexedIntSet boundary = connectivity.getBoundary();
         
-        // Zapisz oryginalny stan podziału
-        Partition originalPartition = partition.copy(numVertices);
+        // Dziennik ruchów i znaczniki przeniesionych wierzchołków z przestrzeni roboczej
+        workspace.ensureCapacity(numVertices);
+        workspace.beginPass();
         
-        // Inicjalizacja
-        cumulativeGain[0] = 0;
+        int cumulativeGain = 0;
+        int maxCumulativeGain = 0;
+        int bestPrefixLength = 0;
         
         // Faza 1: Znajdowanie sekwencji ruchów
         for (int step = 0; step < numVertices; step++) {
+            // Po upływie czasu zostaje najlepszy dotąd prefiks ruchów
+            if (deadline.isExpired()) {
+                break;
+            }
+            
             int bestGain = -1; // Szukamy zysku > 0
             int bestVertex = -1;
             int bestTargetPart = -1;
             
-            // Sprawdź każdy wierzchołek
-            for (int v = 0; v < numVertices; v++) {
-                if (moved[v]) continue; // Pomiń już przeniesione wierzchołki
+            // Sprawdź wierzchołki graniczne - tylko one mogą mieć dodatni zysk
+            for (int b = 0; b < boundary.size(); b++) {
+                int v = boundary.get(b);
+                if (workspace.isMarked(v)) continue; // Pomiń już przeniesione wierzchołki
                 
                 int currentPart = partition.getAssignment(v);
                 
-                // Sprawdź każdą możliwą docelową część
-                for (int targetPart = 0; targetPart < numParts; targetPart++) {
+                // Dodatni zysk możliwy jest tylko w częściach, w których wierzchołek ma sąsiadów
+                for (int i = 0; i < connectivity.getAdjacentPartCount(v); i++) {
+                    int targetPart = connectivity.getAdjacentPart(v, i);
                     if (targetPart == currentPart) continue;
                     
                     // Sprawdź ograniczenia rozmiaru części
@@ -89,7 +84,7 @@ public class KernighanLin {
                     }
                     
                     // Oblicz zysk z przeniesienia
-                    int gain = calculateGain(graph, partition, v, targetPart);
+                    int gain = calculateGain(connectivity, partition, v, targetPart);
                     
                     // Aktualizuj najlepszy ruch
                     if (gain > bestGain) {
@@ -105,53 +100,24 @@ public class KernighanLin {
                 break;
             }
             
-            // Zapisz ruch
-            Move move = new Move(bestVertex, partition.getAssignment(bestVertex), 
-                                bestTargetPart, bestGain);
-            moves.add(move);
-            
-            // Aktualizuj kumulatywny zysk
-            cumulativeGain[moves.size()] = cumulativeGain[moves.size() - 1] + bestGain;
-            
-            // Tymczasowo przenieś wierzchołek
+            // Zapisz ruch w dzienniku i przenieś wierzchołek
+            workspace.logMove(bestVertex, partition.getAssignment(bestVertex));
             partition.setAssignment(bestVertex, bestTargetPart);
+            workspace.mark(bestVertex);
             
-            // Oznacz jako przeniesiony
-            moved[bestVertex] = true;
-        }
-        
-        // Faza 2: Znajdź prefiks z maksymalnym zyskiem
-        int maxCumulativeGain = 0;
-        int bestPrefixLength = 0;
-        
-        for (int i = 1; i <= moves.size(); i++) {
-            if (cumulativeGain[i] > maxCumulativeGain) {
-                maxCumulativeGain = cumulativeGain[i];
-                bestPrefixLength = i;
+            // Faza 2: Śledź prefiks z maksymalnym zyskiem
+            cumulativeGain += bestGain;
+            if (cumulativeGain > maxCumulativeGain) {
+                maxCumulativeGain = cumulativeGain;
+                bestPrefixLength = workspace.getMoveCount();
             }
         }
         
-        // Faza 3: Przywróć oryginalny stan i zastosuj tylko najlepszy prefiks ruchów
-        // Kopiujemy dane z oryginalnego podziału
-        for (int v = 0; v < numVertices; v++) {
-            partition.setAssignment(v, originalPartition.getAssignment(v));
-        }
+        // Faza 3: Cofnij tylko ruchy wykonane po najlepszym prefiksie
+        workspace.rollback(partition, bestPrefixLength);
         
-        // Zastosuj tylko te ruchy, które tworzą najlepszy prefiks
-        if (maxCumulativeGain > 0) {
-            for (int i = 0; i < bestPrefixLength; i++) {
-                Move move = moves.get(i);
-                partition.setAssignment(move.vertex, move.newPart);
-            }
-            
-            // Zaktualizuj liczbę przeciętych krawędzi
-            int newCutEdges = partition.getCutEdges() - maxCumulativeGain;
-            partition.setCutEdges(newCutEdges);
-            
-            return true;
-        }
-        
-        return false;
+        // Liczba przeciętych krawędzi jest aktualizowana przez podział przy każdym ruchu
+        return maxCumulativeGain > 0;
     }
     
     /**
@@ -159,6 +125,14 @@ public class KernighanLin {
      * Optymalizuje podział grafu poprzez iteracyjne przejścia
      */
     public static void optimizeWithKernighanLin(Graph graph, Partition partition, int maxIterations) {
+        optimizeWithKernighanLin(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Wersja algorytmu korzystająca z przestrzeni roboczej współdzielonej między próbami
+     */
+    public static void optimizeWithKernighanLin(Graph graph, Partition partition, int maxIterations,
+                                                RefinementWorkspace workspace) {
         if (graph == null || partition == null || 
             graph.getVertexCount() == 0 || partition.getPartCount() <= 1) {
             return;
@@ -174,6 +148,8 @@ public class KernighanLin {
             }
         }
         
+        // Włącz śledzenie połączeń, aby liczba przeciętych krawędzi była dokładna od początku
+        PartitionUtils.getConnectivity(graph, partition);
         System.out.println("Początkowa liczba przeciętych krawędzi: " + partition.getCutEdges());
         
         // Powtarzaj przejścia KL, aż nie będzie więcej poprawy
@@ -181,7 +157,7 @@ public class KernighanLin {
         boolean improvement = true;
         
         while (improvement && iteration < maxIterations) {
-            improvement = kernighanLinPass(graph, partition);
+            improvement = kernighanLinPass(graph, partition, workspace, Deadline.NONE);
             iteration++;
             
             if (improvement) {
@@ -196,20 +172,29 @@ public class KernighanLin {
         // Zakończenie algorytmu
         System.out.println("Wyjście z algorytmu KL po " + iteration + " iteracjach.");
         System.out.println("Końcowa liczba przeciętych krawędzi: " + partition.getCutEdges());
-        
-        // Ostateczna weryfikacja liczby przeciętych krawędzi
-        int finalEdges = PartitionUtils.calculateCutEdges(graph, partition);
-        if (finalEdges != partition.getCutEdges()) {
-            System.out.println("Korekta końcowej liczby przeciętych krawędzi: zmiana z " + 
-                             partition.getCutEdges() + " na " + finalEdges);
-            partition.setCutEdges(finalEdges);
-        }
     }
     
     /**
      * Wersja algorytmu bez wypisywania komunikatów
      */
     public static void optimizeWithKernighanLinSilent(Graph graph, Partition partition, int maxIterations) {
+        optimizeWithKernighanLinSilent(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Wersja bez komunikatów korzystająca z przestrzeni roboczej współdzielonej między próbami
+     */
+    public static void optimizeWithKernighanLinSilent(Graph graph, Partition partition, int maxIterations,
+                                                      RefinementWorkspace workspace) {
+        optimizeWithKernighanLinSilent(graph, partition, maxIterations, workspace, Deadline.NONE);
+    }
+    
+    /**
+     * Wersja bez komunikatów ograniczona terminem zakończenia
+     * Przy ograniczonym czasie kończy się też, gdy kolejne przejścia przestają przynosić istotną poprawę
+     */
+    public static void optimizeWithKernighanLinSilent(Graph graph, Partition partition, int maxIterations,
+                                                      RefinementWorkspace workspace, Deadline deadline) {
         if (graph == null || partition == null || 
             graph.getVertexCount() == 0 || partition.getPartCount() <= 1) {
             return;
@@ -220,15 +205,21 @@ public class KernighanLin {
         }
         
         int iteration = 0;
+        int stalledPasses = 0;
         boolean improvement = true;
         
-        while (improvement && iteration < maxIterations) {
-            improvement = kernighanLinPass(graph, partition);
+        while (improvement && iteration < maxIterations && !deadline.isExpired()) {
+            int cutBefore = partition.getCutEdges();
+            improvement = kernighanLinPass(graph, partition, workspace, deadline);
             iteration++;
+            
+            if (deadline.isBounded()) {
+                int gain = cutBefore - partition.getCutEdges();
+                stalledPasses = gain < cutBefore * STALL_GAIN_RATIO ? stalledPasses + 1 : 0;
+                if (stalledPasses >= STALL_PASSES) {
+                    break;
+                }
+            }
         }
-        
-        // Weryfikacja końcowa
-        int finalEdges = PartitionUtils.calculateCutEdges(graph, partition);
-        partition.setCutEdges(finalEdges);
     }
 }
\ No newline at end of file
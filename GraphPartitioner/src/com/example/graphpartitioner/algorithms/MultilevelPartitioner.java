@@ -0,0 +1,435 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Wielopoziomowy algorytm podziału grafu (schemat znany z METIS):
+ * 1. zgrubianie grafu przez skojarzenia najcięższych krawędzi,
+ * 2. podział najmniejszego grafu istniejącymi strategiami inicjalizacji,
+ * 3. rzutowanie podziału z powrotem poziom po poziomie z optymalizacją na każdym poziomie.
+ */
+public class MultilevelPartitioner {
+    
+    /**
+     * Zgrubianie kończy się, gdy na jedną część przypada najwyżej tyle wierzchołków
+     */
+    private static final int COARSEST_VERTICES_PER_PART = 30;
+    
+    /**
+     * Zgrubianie kończy się, gdy poziom zmniejsza graf o mniej niż 10%
+     */
+    private static final double MIN_COARSENING_RATIO = 0.9;
+    
+    /**
+     * Maksymalna liczba przejść optymalizacji na jednym poziomie
+     */
+    private static final int REFINEMENT_PASSES = 8;
+    
+    /**
+     * Liczba losowych inicjalizacji najmniejszego grafu
+     */
+    private static final int RANDOM_INITIAL_TRIALS = 4;
+    
+    /**
+     * Dzieli graf na części metodą wielopoziomową
+     */
+    public static Partition partitionMultilevel(Graph graph, int numParts, int marginPercent) {
+        return partitionMultilevel(graph, numParts, marginPercent, Deadline.NONE);
+    }
+    
+    /**
+     * Dzieli graf metodą wielopoziomową z limitem czasu
+     * Po upływie terminu zgrubianie i optymalizacja są przerywane, a podział jest tylko
+     * rzutowany na kolejne poziomy i balansowany, więc wynik zawsze jest kompletny
+     */
+    public static Partition partitionMultilevel(Graph graph, int numParts, int marginPercent, Deadline deadline) {
+        if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0) {
+            throw new IllegalArgumentException("Invalid parameters for multilevel partitioning");
+        }
+        
+        int numVertices = graph.getVertexCount();
+        Partition partition = new Partition(graph, numParts, marginPercent);
+        
+        // Granice rozmiarów zgodne z PartitionUtils.canMoveVertex
+        int avgSize = partition.getAveragePartSize();
+        int maxImbalance = partition.getMaxImbalance();
+        int[] targetWeights = new int[numParts];
+        int[] minWeights = new int[numParts];
+        int[] maxWeights = new int[numParts];
+        for (int p = 0; p < numParts; p++) {
+            targetWeights[p] = numVertices / numParts + (p < numVertices % numParts ? 1 : 0);
+            minWeights[p] = avgSize - maxImbalance;
+            maxWeights[p] = avgSize + maxImbalance;
+        }
+        
+        int[] parts = partitionWeighted(WeightedGraph.fromGraph(graph), targetWeights,
+                                        minWeights, maxWeights, new Random(), deadline);
+        
+        for (int v = 0; v < numVertices; v++) {
+            partition.setAssignment(v, parts[v]);
+        }
+        
+        return partition;
+    }
+    
+    /**
+     * Dzieli graf ważony na części o zadanych wagach docelowych i granicach wag
+     * Zwraca numer części dla każdego wierzchołka
+     */
+    static int[] partitionWeighted(WeightedGraph graph, int[] targetWeights,
+                                   int[] minWeights, int[] maxWeights, Random random) {
+        return partitionWeighted(graph, targetWeights, minWeights, maxWeights, random, Deadline.NONE);
+    }
+    
+    private static int[] partitionWeighted(WeightedGraph graph, int[] targetWeights, int[] minWeights,
+                                           int[] maxWeights, Random random, Deadline deadline) {
+        int numParts = targetWeights.length;
+        
+        // 1. Zgrubianie
+        List<WeightedGraph> levels = new ArrayList<>();
+        List<int[]> coarseMaps = new ArrayList<>();
+        levels.add(graph);
+        
+        int coarsenTo = COARSEST_VERTICES_PER_PART * numParts;
+        int maxVertexWeight = Math.max(1, (int) (1.5 * graph.getTotalVertexWeight() / coarsenTo));
+        WeightedGraph current = graph;
+        
+        while (current.getVertexCount() > coarsenTo && !deadline.isExpired()) {
+            int[] coarseMap = new int[current.getVertexCount()];
+            WeightedGraph coarse = coarsen(current, coarseMap, maxVertexWeight, random);
+            if (coarse.getVertexCount() > MIN_COARSENING_RATIO * current.getVertexCount()) {
+                break;
+            }
+            
+            coarseMaps.add(coarseMap);
+            levels.add(coarse);
+            current = coarse;
+        }
+        
+        // 2. Podział najmniejszego grafu
+        int[] parts = initialPartition(current, targetWeights, minWeights, maxWeights, random, deadline);
+        
+        // 3. Rzutowanie na kolejne poziomy z optymalizacją
+        for (int level = levels.size() - 2; level >= 0; level--) {
+            WeightedGraph fine = levels.get(level);
+            int[] coarseMap = coarseMaps.get(level);
+            
+            int[] fineParts = new int[fine.getVertexCount()];
+            for (int v = 0; v < fineParts.length; v++) {
+                fineParts[v] = parts[coarseMap[v]];
+            }
+            parts = fineParts;
+            
+            refine(fine, parts, targetWeights, minWeights, maxWeights, random, deadline);
+        }
+        
+        return parts;
+    }
+    
+    /**
+     * Zgrubia graf skojarzeniem najcięższych krawędzi (heavy-edge matching)
+     * Wypełnia coarseMap numerami wierzchołków grafu zgrubionego
+     */
+    private static WeightedGraph coarsen(WeightedGraph graph, int[] coarseMap, int maxVertexWeight, Random random) {
+        int n = graph.getVertexCount();
+        int[] rowPointers = graph.getRowPointers();
+        int[] adjacencyList = graph.getAdjacencyList();
+        int[] edgeWeights = graph.getEdgeWeights();
+        int[] vertexWeights = graph.getVertexWeights();
+        
+        // Skojarz każdy wierzchołek z nieskojarzonym sąsiadem o najcięższej krawędzi
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        
+        for (int v : randomPermutation(n, random)) {
+            if (match[v] != -1) continue;
+            
+            int best = v;
+            int bestWeight = 0;
+            for (int i = rowPointers[v]; i < rowPointers[v + 1]; i++) {
+                int u = adjacencyList[i];
+                if (match[u] == -1 && u != v && edgeWeights[i] > bestWeight &&
+                    vertexWeights[v] + vertexWeights[u] <= maxVertexWeight) {
+                    best = u;
+                    bestWeight = edgeWeights[i];
+                }
+            }
+            
+            match[v] = best;
+            match[best] = v;
+        }
+        
+        // Ponumeruj wierzchołki grafu zgrubionego
+        int coarseCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (v <= match[v]) {
+                coarseMap[v] = coarseCount;
+                coarseMap[match[v]] = coarseCount;
+                coarseCount++;
+            }
+        }
+        
+        // Scal listy sąsiedztwa skojarzonych par, sumując wagi równoległych krawędzi
+        int[] coarseRowPointers = new int[coarseCount + 1];
+        int[] coarseAdjacency = new int[adjacencyList.length];
+        int[] coarseEdgeWeights = new int[adjacencyList.length];
+        int[] coarseVertexWeights = new int[coarseCount];
+        int[] position = new int[coarseCount];
+        Arrays.fill(position, -1);
+        
+        int write = 0;
+        for (int v = 0; v < n; v++) {
+            if (v > match[v]) continue;
+            
+            int c = coarseMap[v];
+            int rowStart = write;
+            coarseRowPointers[c] = rowStart;
+            coarseVertexWeights[c] = vertexWeights[v] + (match[v] != v ? vertexWeights[match[v]] : 0);
+            
+            for (int x = v; ; x = match[v]) {
+                for (int i = rowPointers[x]; i < rowPointers[x + 1]; i++) {
+                    int cu = coarseMap[adjacencyList[i]];
+                    if (cu == c) continue;
+                    
+                    if (position[cu] == -1) {
+                        position[cu] = write;
+                        coarseAdjacency[write] = cu;
+                        coarseEdgeWeights[write] = edgeWeights[i];
+                        write++;
+                    } else {
+                        coarseEdgeWeights[position[cu]] += edgeWeights[i];
+                    }
+                }
+                if (x == match[v]) break;
+            }
+            
+            for (int i = rowStart; i < write; i++) {
+                position[coarseAdjacency[i]] = -1;
+            }
+        }
+        coarseRowPointers[coarseCount] = write;
+        
+        return new WeightedGraph(coarseCount, coarseRowPointers,
+                                 Arrays.copyOf(coarseAdjacency, write),
+                                 Arrays.copyOf(coarseEdgeWeights, write),
+                                 coarseVertexWeights);
+    }
+    
+    /**
+     * Dzieli najmniejszy graf istniejącymi strategiami inicjalizacji i wybiera najlepszy wynik
+     * Po upływie terminu kolejne strategie są pomijane (pierwsza jest wykonywana zawsze)
+     */
+    private static int[] initialPartition(WeightedGraph graph, int[] targetWeights, int[] minWeights,
+                                          int[] maxWeights, Random random, Deadline deadline) {
+        int numParts = targetWeights.length;
+        Graph structure = graph.toGraph();
+        
+        // Strategie zachowujące lokalność najpierw - po upływie terminu zostaje tylko pierwsza
+        List<Supplier<Partition>> candidates = new ArrayList<>();
+        candidates.add(() -> PartitionInitializer.initializeSequential(structure, numParts, 0));
+        candidates.add(() -> PartitionInitializer.initializeDFS(structure, numParts, 0));
+        candidates.add(() -> PartitionInitializer.initializeModulo(structure, numParts, 0));
+        for (int i = 0; i < RANDOM_INITIAL_TRIALS; i++) {
+            candidates.add(() -> PartitionInitializer.initializeRandom(structure, numParts, 0));
+        }
+        
+        int[] bestParts = null;
+        long bestViolation = Long.MAX_VALUE;
+        long bestCut = Long.MAX_VALUE;
+        
+        for (Supplier<Partition> candidate : candidates) {
+            if (bestParts != null && deadline.isExpired()) break;
+            
+            int[] parts = Arrays.copyOf(candidate.get().getAssignments(), graph.getVertexCount());
+            refine(graph, parts, targetWeights, minWeights, maxWeights, random, deadline);
+            
+            // Najpierw równowaga, potem liczba przeciętych krawędzi
+            long violation = balanceViolation(graph, parts, minWeights, maxWeights);
+            long cut = graph.cutWeight(parts);
+            if (violation < bestViolation || (violation == bestViolation && cut < bestCut)) {
+                bestParts = parts;
+                bestViolation = violation;
+                bestCut = cut;
+            }
+        }
+        
+        return bestParts;
+    }
+    
+    /**
+     * Balansuje podział, a następnie zachłannie przenosi wierzchołki graniczne o dodatnim zysku
+     * Na poziomach zgrubionych granice wag są poluzowane o wagę najcięższego wierzchołka
+     * Po upływie terminu wykonywane jest tylko balansowanie
+     */
+    private static void refine(WeightedGraph graph, int[] parts, int[] targetWeights,
+                               int[] minWeights, int[] maxWeights, Random random, Deadline deadline) {
+        int n = graph.getVertexCount();
+        int numParts = targetWeights.length;
+        int[] rowPointers = graph.getRowPointers();
+        int[] adjacencyList = graph.getAdjacencyList();
+        int[] edgeWeights = graph.getEdgeWeights();
+        int[] vertexWeights = graph.getVertexWeights();
+        int slack = graph.maxVertexWeight() - 1;
+        
+        int[] partWeights = new int[numParts];
+        for (int v = 0; v < n; v++) {
+            partWeights[parts[v]] += vertexWeights[v];
+        }
+        
+        balance(graph, parts, partWeights, targetWeights, minWeights, maxWeights, slack);
+        if (deadline.isExpired()) {
+            return;
+        }
+        
+        int[] connection = new int[numParts];
+        int[] touchedParts = new int[numParts];
+        int[] order = randomPermutation(n, random);
+        
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            int moves = 0;
+            
+            for (int v : order) {
+                int from = parts[v];
+                int weight = vertexWeights[v];
+                int touchedCount = 0;
+                
+                // Zsumuj wagi krawędzi do każdej sąsiedniej części
+                for (int i = rowPointers[v]; i < rowPointers[v + 1]; i++) {
+                    int part = parts[adjacencyList[i]];
+                    if (connection[part] == 0) {
+                        touchedParts[touchedCount++] = part;
+                    }
+                    connection[part] += edgeWeights[i];
+                }
+                
+                int internal = connection[from];
+                int bestTarget = -1;
+                int bestGain = Integer.MIN_VALUE;
+                boolean sourceCanShrink = partWeights[from] - weight >= minWeights[from] - slack;
+                
+                for (int i = 0; i < touchedCount; i++) {
+                    int part = touchedParts[i];
+                    int gain = connection[part] - internal;
+                    connection[part] = 0;
+                    
+                    if (part == from || !sourceCanShrink ||
+                        partWeights[part] + weight > maxWeights[part] + slack) continue;
+                    
+                    if (gain > bestGain || (gain == bestGain && partWeights[part] < partWeights[bestTarget])) {
+                        bestTarget = part;
+                        bestGain = gain;
+                    }
+                }
+                connection[from] = 0;
+                
+                if (bestTarget == -1) continue;
+                
+                // Ruch bez zysku jest dozwolony tylko gdy poprawia równowagę
+                boolean improvesBalance = partWeights[from] - targetWeights[from] >
+                                          partWeights[bestTarget] - targetWeights[bestTarget] + weight;
+                if (bestGain > 0 || (bestGain == 0 && improvesBalance)) {
+                    parts[v] = bestTarget;
+                    partWeights[from] -= weight;
+                    partWeights[bestTarget] += weight;
+                    moves++;
+                }
+            }
+            
+            if (moves == 0 || deadline.isExpired()) break;
+        }
+    }
+    
+    /**
+     * Przenosi wierzchołki z części najbardziej przeciążonej do najbardziej niedociążonej,
+     * najpierw te sąsiadujące z częścią docelową
+     */
+    private static void balance(WeightedGraph graph, int[] parts, int[] partWeights, int[] targetWeights,
+                                int[] minWeights, int[] maxWeights, int slack) {
+        int n = graph.getVertexCount();
+        int numParts = targetWeights.length;
+        int[] rowPointers = graph.getRowPointers();
+        int[] adjacencyList = graph.getAdjacencyList();
+        int[] vertexWeights = graph.getVertexWeights();
+        
+        for (int round = 0; round < 2 * numParts + 2; round++) {
+            boolean violated = false;
+            int heavy = 0;
+            int light = 0;
+            for (int p = 0; p < numParts; p++) {
+                if (partWeights[p] > maxWeights[p] + slack || partWeights[p] < minWeights[p] - slack) {
+                    violated = true;
+                }
+                if (partWeights[p] - targetWeights[p] > partWeights[heavy] - targetWeights[heavy]) {
+                    heavy = p;
+                }
+                if (partWeights[p] - targetWeights[p] < partWeights[light] - targetWeights[light]) {
+                    light = p;
+                }
+            }
+            if (!violated || heavy == light) return;
+            
+            for (int phase = 0; phase < 2; phase++) {
+                for (int v = 0; v < n; v++) {
+                    if (partWeights[heavy] <= targetWeights[heavy] || partWeights[light] >= targetWeights[light]) {
+                        break;
+                    }
+                    if (parts[v] != heavy || partWeights[light] + vertexWeights[v] > maxWeights[light] + slack) {
+                        continue;
+                    }
+                    
+                    // W pierwszej fazie tylko wierzchołki sąsiadujące z częścią docelową
+                    if (phase == 0) {
+                        boolean adjacent = false;
+                        for (int i = rowPointers[v]; i < rowPointers[v + 1] && !adjacent; i++) {
+                            adjacent = parts[adjacencyList[i]] == light;
+                        }
+                        if (!adjacent) continue;
+                    }
+                    
+                    parts[v] = light;
+                    partWeights[heavy] -= vertexWeights[v];
+                    partWeights[light] += vertexWeights[v];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Zwraca łączne przekroczenie granic wag części
+     */
+    private static long balanceViolation(WeightedGraph graph, int[] parts, int[] minWeights, int[] maxWeights) {
+        long[] partWeights = new long[minWeights.length];
+        int[] vertexWeights = graph.getVertexWeights();
+        for (int v = 0; v < parts.length; v++) {
+            partWeights[parts[v]] += vertexWeights[v];
+        }
+        
+        long violation = 0;
+        for (int p = 0; p < partWeights.length; p++) {
+            violation += Math.max(0, partWeights[p] - maxWeights[p]);
+            violation += Math.max(0, minWeights[p] - partWeights[p]);
+        }
+        return violation;
+    }
+    
+    private static int[] randomPermutation(int n, Random random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        return permutation;
+    }
+}
\ No newline at end of file
@@ -19,7 +19,7 @@ public class PartitionInitializer {
             throw new IllegalArgumentException("Invalid parameters for modulo initialization");
         }
         
-        Partition partition = new Partition(numParts, graph.getVertexCount(), marginPercent);
+        Partition partition = new Partition(graph, numParts, marginPercent);
         
         // Przypisz wierzchołki metodą modulo
         for (int i = 0; i < graph.getVertexCount(); i++) {
@@ -27,9 +27,6 @@ public class PartitionInitializer {
             partition.setAssignment(i, partId);
         }
         
-        // Oblicz początkową liczbę przeciętych krawędzi
-        partition.setCutEdges(PartitionUtils.calculateCutEdges(graph, partition));
-        
         return partition;
     }
     
@@ -42,7 +39,7 @@ public class PartitionInitializer {
             throw new IllegalArgumentException("Invalid parameters for sequential initialization");
         }
         
-        Partition partition = new Partition(numParts, graph.getVertexCount(), marginPercent);
+        Partition partition = new Partition(graph, numParts, marginPercent);
         
         int verticesPerPart = graph.getVertexCount() / numParts;
         int remainder = graph.getVertexCount() % numParts;
@@ -57,9 +54,6 @@ public class PartitionInitializer {
             }
         }
         
-        // Oblicz początkową liczbę przeciętych krawędzi
-        partition.setCutEdges(PartitionUtils.calculateCutEdges(graph, partition));
-        
         return partition;
     }
     
@@ -72,7 +66,7 @@ public class PartitionInitializer {
             throw new IllegalArgumentException("Invalid parameters for random initialization");
         }
         
-        Partition partition = new Partition(numParts, graph.getVertexCount(), marginPercent);
+        Partition partition = new Partition(graph, numParts, marginPercent);
         Random random = new Random();
         
         // Losowo przypisz każdy wierzchołek do części
@@ -96,31 +90,35 @@ public class PartitionInitializer {
             throw new IllegalArgumentException("Invalid parameters for DFS initialization");
         }
         
-        Partition partition = new Partition(numParts, graph.getVertexCount(), marginPercent);
+        Partition partition = new Partition(graph, numParts, marginPercent);
         boolean[] visited = new boolean[graph.getVertexCount()];
         int targetSizePerPart = graph.getVertexCount() / numParts;
         
         int currentPart = 0;
         int currentPartSize = 0;
         
+        // Stos wierzchołków - każda krawędź trafia na niego najwyżej raz
+        int[] stack = new int[graph.getNeighborsEnd(graph.getVertexCount() - 1) + 1];
+        
         for (int start = 0; start < graph.getVertexCount() && currentPart < numParts; start++) {
             if (!visited[start]) {
                 // DFS z ograniczeniem rozmiaru części
-                java.util.Stack<Integer> stack = new java.util.Stack<>();
-                stack.push(start);
+                int stackSize = 0;
+                stack[stackSize++] = start;
                 
-                while (!stack.isEmpty() && currentPartSize < targetSizePerPart) {
-                    int v = stack.pop();
+                while (stackSize > 0 && currentPartSize < targetSizePerPart) {
+                    int v = stack[--stackSize];
                     
                     if (!visited[v]) {
                         visited[v] = true;
                         partition.setAssignment(v, currentPart);
                         currentPartSize++;
                         
-                        // Dodaj sąsiadów do stosu
-                        for (int neighbor : graph.getNeighbors(v)) {
-                            if (!visited[neighbor]) {
-                                stack.push(neighbor);
+                        // Dodaj sąsiadów do stosu (z pominięciem wpisów spoza zakresu wierzchołków)
+                        for (int i = graph.getNeighborsStart(v); i < graph.getNeighborsEnd(v); i++) {
+                            int neighbor = graph.getNeighborAt(i);
+                            if (neighbor >= 0 && neighbor < graph.getVertexCount() && !visited[neighbor]) {
+                                stack[stackSize++] = neighbor;
                             }
                         }
                     }
@@ -141,9 +139,6 @@ public class PartitionInitializer {
             }
         }
         
-        // Oblicz początkową liczbę przeciętych krawędzi
-        partition.setCutEdges(PartitionUtils.calculateCutEdges(graph, partition));
-        
         return partition;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.example.graphpartitioner.algorithms;
 
+import com.example.graphpartitioner.model.CompressedGraph;
 import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.PartConnectivity;
 import com.example.graphpartitioner.model.Partition;
 
 import java.util.*;
@@ -11,25 +13,27 @@ import java.util.*;
 public class PartitionUtils {
     
     /**
-     * Oblicza liczbę przeciętych krawędzi w podziale
+     * Oblicza od zera liczbę przeciętych krawędzi w podziale (w nieskierowanym widoku grafu)
      * Analogicznie do oblicz_przeciete_krawedzie z C
+     * Podział ze śledzeniem połączeń zna tę liczbę bez przeliczania - patrz Partition.getCutEdges
      */
     public static int calculateCutEdges(Graph graph, Partition partition) {
         if (graph == null || partition == null || graph.getVertexCount() == 0) {
             return 0;
         }
         
+        Graph view = graph.getUndirectedView();
         int cutEdges = 0;
         
         // Iterujemy po wszystkich wierzchołkach
-        for (int u = 0; u < graph.getVertexCount(); u++) {
+        for (int u = 0; u < view.getVertexCount(); u++) {
             int partU = partition.getAssignment(u);
             
             // Sprawdzamy sąsiadów wierzchołka u
-            List<Integer> neighbors = graph.getNeighbors(u);
-            for (int v : neighbors) {
+            for (int i = view.getNeighborsStart(u); i < view.getNeighborsEnd(u); i++) {
+                int v = view.getNeighborAt(i);
                 // Liczymy krawędź tylko gdy u < v aby uniknąć podwójnego liczenia
-                if (u < v && v < graph.getVertexCount()) {
+                if (u < v) {
                     int partV = partition.getAssignment(v);
                     
                     // Jeśli wierzchołki są w różnych częściach, krawędź jest przecięta
@@ -43,6 +47,33 @@ public class PartitionUtils {
         return cutEdges;
     }
     
+    /**
+     * Oblicza liczbę przeciętych krawędzi na skompresowanej liście sąsiedztwa
+     * Graf powinien być skompresowanym widokiem nieskierowanym, aby wynik zgadzał się z calculateCutEdges
+     */
+    public static int calculateCutEdges(CompressedGraph graph, Partition partition) {
+        if (graph == null || partition == null || graph.getVertexCount() == 0) {
+            return 0;
+        }
+        
+        CompressedGraph.NeighborCursor cursor = graph.cursor();
+        int cutEdges = 0;
+        
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            int partU = partition.getAssignment(u);
+            cursor.reset(u);
+            while (cursor.hasNext()) {
+                int v = cursor.next();
+                // Liczymy krawędź tylko gdy u < v aby uniknąć podwójnego liczenia
+                if (u < v && partition.getAssignment(v) != partU) {
+                    cutEdges++;
+                }
+            }
+        }
+        
+        return cutEdges;
+    }
+    
     /**
      * Balansuje losowy podział
      * Analogicznie do zbalansuj_losowy_podzial z C
@@ -54,49 +85,55 @@ public class PartitionUtils {
         }
         
         Random random = new Random();
+        getConnectivity(graph, partition); // Śledzenie utrzymuje liczbę przeciętych krawędzi po przeniesieniach
         int avgSize = partition.getAveragePartSize();
         int maxImbalance = partition.getMaxImbalance();
         
         int maxIterations = graph.getVertexCount() / 2; // Limit bezpieczeństwa
         int iterations = 0;
         
+        // Bufory wielokrotnego użytku - przeniesienia nie alokują pamięci
+        int[] partsAbove = new int[partition.getPartCount()];
+        int[] partsBelow = new int[partition.getPartCount()];
+        int[] candidates = new int[graph.getVertexCount()];
+        
         while (iterations < maxIterations) {
             // Znajdź części zbyt duże i zbyt małe
-            List<Integer> partsAbove = new ArrayList<>();
-            List<Integer> partsBelow = new ArrayList<>();
+            int aboveCount = 0;
+            int belowCount = 0;
             
             for (int p = 0; p < partition.getPartCount(); p++) {
                 int currentSize = partition.getPartSizes()[p];
                 
                 if (currentSize > avgSize + maxImbalance) {
-                    partsAbove.add(p);
+                    partsAbove[aboveCount++] = p;
                 } else if (currentSize < avgSize - maxImbalance) {
-                    partsBelow.add(p);
+                    partsBelow[belowCount++] = p;
                 }
             }
             
             // Jeśli wszystko jest zbalansowane, kończymy
-            if (partsAbove.isEmpty() || partsBelow.isEmpty()) {
+            if (aboveCount == 0 || belowCount == 0) {
                 break;
             }
             
             // Przenieś wierzchołki z części zbyt dużych do zbyt małych
-            int transfers = Math.min(partsAbove.size(), partsBelow.size());
+            int transfers = Math.min(aboveCount, belowCount);
             for (int i = 0; i < transfers; i++) {
-                int sourcePart = partsAbove.get(i);
-                int targetPart = partsBelow.get(i);
+                int sourcePart = partsAbove[i];
+                int targetPart = partsBelow[i];
                 
                 // Znajdź wierzchołki w części źródłowej
-                List<Integer> candidates = new ArrayList<>();
+                int candidateCount = 0;
                 for (int v = 0; v < graph.getVertexCount(); v++) {
                     if (partition.getAssignment(v) == sourcePart) {
-                        candidates.add(v);
+                        candidates[candidateCount++] = v;
                     }
                 }
                 
-                if (!candidates.isEmpty()) {
+                if (candidateCount > 0) {
                     // Wybierz losowy wierzchołek
-                    int v = candidates.get(random.nextInt(candidates.size()));
+                    int v = candidates[random.nextInt(candidateCount)];
                     
                     // Przenieś wierzchołek
                     partition.setAssignment(v, targetPart);
@@ -105,19 +142,31 @@ public class PartitionUtils {
             
             iterations++;
         }
-        
-        // Zaktualizuj liczbę przeciętych krawędzi
-        partition.setCutEdges(calculateCutEdges(graph, partition));
+    }
+    
+    /**
+     * Zwraca tablicę połączeń podziału, włączając jej śledzenie jeśli jeszcze nie działa
+     */
+    public static PartConnectivity getConnectivity(Graph graph, Partition partition) {
+        if (partition.getConnectivity() == null) {
+            partition.enableConnectivity(graph);
+        }
+        return partition.getConnectivity();
     }
     
     /**
      * Oblicza liczbę sąsiadów wierzchołka w danej części
+     * Przy włączonym śledzeniu połączeń odczyt odbywa się bez przeglądania sąsiadów
      */
     public static int countNeighborsInPart(Graph graph, Partition partition, int vertex, int partId) {
+        if (partition.getConnectivity() != null) {
+            return partition.getConnectivity().countNeighbors(vertex, partId);
+        }
+        
         int count = 0;
-        List<Integer> neighbors = graph.getNeighbors(vertex);
         
-        for (int neighbor : neighbors) {
+        for (int i = graph.getNeighborsStart(vertex); i < graph.getNeighborsEnd(vertex); i++) {
+            int neighbor = graph.getNeighborAt(i);
             if (neighbor >= 0 && neighbor < graph.getVertexCount() && 
                 partition.getAssignment(neighbor) == partId) {
                 count++;
@@ -1,7 +1,9 @@
 package com.example.graphpartitioner.algorithms;
 
 import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.PartConnectivity;
 import com.example.graphpartitioner.model.Partition;
+import com.example.graphpartitioner.utils.IndexedIntSet;
 
 import java.util.*;
 
@@ -28,6 +30,9 @@ public class Perturbation {
         Partition perturbed = source.copy(graph.getVertexCount());
         if (perturbed == null) return null;
         
+        // Ruchy aktualizują liczbę przeciętych krawędzi na bieżąco
+        PartitionUtils.getConnectivity(graph, perturbed);
+        
         // Oblicz liczbę wierzchołków do perturbacji
         int verticesToPerturb = (int)(graph.getVertexCount() * perturbationRatio);
         if (verticesToPerturb < 1 && perturbationRatio > 0 && graph.getVertexCount() > 0) {
@@ -81,9 +86,6 @@ public class Perturbation {
         System.out.println("Perturbacja: wykonano " + movesMade + "/" + verticesToPerturb + 
                          " ruchów po " + attempts + " próbach");
         
-        // Zaktualizuj liczbę przeciętych krawędzi
-        perturbed.setCutEdges(PartitionUtils.calculateCutEdges(graph, perturbed));
-        
         return perturbed;
     }
     
@@ -101,22 +103,13 @@ public class Perturbation {
         Partition perturbed = source.copy(graph.getVertexCount());
         if (perturbed == null) return null;
         
-        // Znajdź wierzchołki graniczne
-        List<Integer> boundaryVertices = new ArrayList<>();
-        for (int v = 0; v < graph.getVertexCount(); v++) {
-            int currentPart = perturbed.getAssignment(v);
-            boolean isBoundary = false;
-            
-            for (int neighbor : graph.getNeighbors(v)) {
-                if (perturbed.getAssignment(neighbor) != currentPart) {
-                    isBoundary = true;
-                    break;
-                }
-            }
-            
-            if (isBoundary) {
-                boundaryVertices.add(v);
-            }
+        PartConnectivity connectivity = PartitionUtils.getConnectivity(graph, perturbed);
+        
+        // Wierzchołki graniczne są utrzymywane przez tablicę połączeń
+        IndexedIntSet boundary = connectivity.getBoundary();
+        List<Integer> boundaryVertices = new ArrayList<>(boundary.size());
+        for (int i = 0; i < boundary.size(); i++) {
+            boundaryVertices.add(boundary.get(i));
         }
         
         if (boundaryVertices.isEmpty()) {
@@ -140,20 +133,12 @@ public class Perturbation {
             int v = boundaryVertices.get(i);
             int currentPart = perturbed.getAssignment(v);
             
-            // Znajdź część z największą liczbą sąsiadów
-            Map<Integer, Integer> neighborCounts = new HashMap<>();
-            for (int neighbor : graph.getNeighbors(v)) {
-                int neighborPart = perturbed.getAssignment(neighbor);
-                neighborCounts.put(neighborPart, 
-                                  neighborCounts.getOrDefault(neighborPart, 0) + 1);
-            }
-            
             // Wybierz część docelową (preferuj tę z największą liczbą sąsiadów)
             int bestPart = -1;
             int maxNeighbors = -1;
-            for (Map.Entry<Integer, Integer> entry : neighborCounts.entrySet()) {
-                int part = entry.getKey();
-                int count = entry.getValue();
+            for (int j = 0; j < connectivity.getAdjacentPartCount(v); j++) {
+                int part = connectivity.getAdjacentPart(v, j);
+                int count = connectivity.getNeighborCount(v, j);
                 
                 if (part != currentPart && count > maxNeighbors && 
                     PartitionUtils.canMoveVertex(perturbed, v, part)) {
@@ -185,9 +170,6 @@ public class Perturbation {
         
         System.out.println("Inteligentna perturbacja: wykonano " + movesMade + " ruchów");
         
-        // Zaktualizuj liczbę przeciętych krawędzi
-        perturbed.setCutEdges(PartitionUtils.calculateCutEdges(graph, perturbed));
-        
         return perturbed;
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Podział grafu na k części przez rekurencyjną bisekcję.
+ * Każda bisekcja jest wykonywana metodą wielopoziomową, a oba podgrafy
+ * indukowane są dzielone dalej jako niezależne zadania w puli ForkJoinPool.
+ */
+public class RecursiveBisection {
+    
+    /**
+     * Dzieli graf rekurencyjną bisekcją we wspólnej puli wątków
+     */
+    public static Partition partitionRecursiveBisection(Graph graph, int numParts, int marginPercent) {
+        return partitionRecursiveBisection(graph, numParts, marginPercent, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Dzieli graf rekurencyjną bisekcją w podanej puli wątków
+     */
+    public static Partition partitionRecursiveBisection(Graph graph, int numParts, int marginPercent,
+                                                        ForkJoinPool pool) {
+        if (graph == null || graph.getVertexCount() <= 0 || numParts <= 0 ||
+            numParts > graph.getVertexCount()) {
+            throw new IllegalArgumentException("Invalid parameters for recursive bisection");
+        }
+        
+        int numVertices = graph.getVertexCount();
+        Partition partition = new Partition(graph, numParts, marginPercent);
+        
+        // Każda część końcowa musi mieścić się w granicach z PartitionUtils.canMoveVertex
+        int avgSize = partition.getAveragePartSize();
+        int maxImbalance = partition.getMaxImbalance();
+        int minPartWeight = Math.max(1, avgSize - maxImbalance);
+        int maxPartWeight = avgSize + maxImbalance;
+        
+        WeightedGraph root = WeightedGraph.fromGraph(graph);
+        int[] parts = pool.invoke(new BisectionTask(root, numParts, minPartWeight, maxPartWeight));
+        
+        for (int v = 0; v < numVertices; v++) {
+            partition.setAssignment(v, parts[v]);
+        }
+        
+        return partition;
+    }
+    
+    /**
+     * Zadanie dzielące podgraf na zadaną liczbę części
+     * Zwraca numery części (od 0) dla wierzchołków podgrafu
+     */
+    private static class BisectionTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+        
+        private final WeightedGraph graph;
+        private final int numParts;
+        private final int minPartWeight;
+        private final int maxPartWeight;
+        
+        BisectionTask(WeightedGraph graph, int numParts, int minPartWeight, int maxPartWeight) {
+            this.graph = graph;
+            this.numParts = numParts;
+            this.minPartWeight = minPartWeight;
+            this.maxPartWeight = maxPartWeight;
+        }
+        
+        @Override
+        protected int[] compute() {
+            int n = graph.getVertexCount();
+            if (numParts == 1 || n == 0) {
+                return new int[n];
+            }
+            
+            // Nieparzyste k dzielimy proporcjonalnie, np. 5 -> 2 + 3
+            int leftParts = numParts / 2;
+            int rightParts = numParts - leftParts;
+            int totalWeight = graph.getTotalVertexWeight();
+            
+            // Granice lewej połowy gwarantują, że obie połowy da się dalej podzielić w granicach marginesu
+            int leftTarget = (int) ((long) totalWeight * leftParts / numParts);
+            int leftMin = Math.max(leftParts * minPartWeight, totalWeight - rightParts * maxPartWeight);
+            int leftMax = Math.min(leftParts * maxPartWeight, totalWeight - rightParts * minPartWeight);
+            
+            int[] targetWeights = {leftTarget, totalWeight - leftTarget};
+            int[] minWeights = {leftMin, totalWeight - leftMax};
+            int[] maxWeights = {leftMax, totalWeight - leftMin};
+            
+            int[] sides = MultilevelPartitioner.partitionWeighted(graph, targetWeights, minWeights, maxWeights,
+                                                                  ThreadLocalRandom.current());
+            
+            // Wyodrębnij podgrafy indukowane obu połówek
+            int leftCount = 0;
+            for (int side : sides) {
+                if (side == 0) leftCount++;
+            }
+            
+            int[] leftVertices = new int[leftCount];
+            int[] rightVertices = new int[n - leftCount];
+            int[] localIndex = new int[n];
+            int leftWrite = 0;
+            int rightWrite = 0;
+            for (int v = 0; v < n; v++) {
+                if (sides[v] == 0) {
+                    localIndex[v] = leftWrite;
+                    leftVertices[leftWrite++] = v;
+                } else {
+                    localIndex[v] = rightWrite;
+                    rightVertices[rightWrite++] = v;
+                }
+            }
+            
+            BisectionTask left = new BisectionTask(graph.inducedSubgraph(sides, 0, leftVertices, localIndex),
+                                                   leftParts, minPartWeight, maxPartWeight);
+            BisectionTask right = new BisectionTask(graph.inducedSubgraph(sides, 1, rightVertices, localIndex),
+                                                    rightParts, minPartWeight, maxPartWeight);
+            
+            // Lewa połowa trafia do puli, prawa jest liczona w bieżącym wątku
+            left.fork();
+            int[] rightResult = right.compute();
+            int[] leftResult = left.join();
+            
+            int[] parts = new int[n];
+            for (int v = 0; v < n; v++) {
+                parts[v] = sides[v] == 0 ? leftResult[localIndex[v]] : leftParts + rightResult[localIndex[v]];
+            }
+            return parts;
+        }
+    }
+}
\ No newline at end of file
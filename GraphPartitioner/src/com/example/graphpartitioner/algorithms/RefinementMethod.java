@@ -0,0 +1,72 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+
+/**
+ * Dostępne metody optymalizacji (refinementu) podziału grafu
+ */
+public enum RefinementMethod {
+    KERNIGHAN_LIN("Kernighan-Lin"),
+    FIDUCCIA_MATTHEYSES("Fiduccia-Mattheyses");
+    
+    private final String displayName;
+    
+    RefinementMethod(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Optymalizuje podział wybraną metodą
+     */
+    public void optimize(Graph graph, Partition partition, int maxIterations) {
+        optimize(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Optymalizuje podział wybraną metodą, korzystając ze wspólnej przestrzeni roboczej
+     */
+    public void optimize(Graph graph, Partition partition, int maxIterations, RefinementWorkspace workspace) {
+        switch (this) {
+            case FIDUCCIA_MATTHEYSES:
+                FiducciaMattheyses.optimizeWithFiducciaMattheyses(graph, partition, maxIterations, workspace);
+                break;
+            default:
+                KernighanLin.optimizeWithKernighanLin(graph, partition, maxIterations, workspace);
+        }
+    }
+    
+    /**
+     * Optymalizuje podział wybraną metodą bez wypisywania komunikatów
+     */
+    public void optimizeSilent(Graph graph, Partition partition, int maxIterations) {
+        optimizeSilent(graph, partition, maxIterations, new RefinementWorkspace());
+    }
+    
+    /**
+     * Wersja bez komunikatów korzystająca ze wspólnej przestrzeni roboczej
+     */
+    public void optimizeSilent(Graph graph, Partition partition, int maxIterations, RefinementWorkspace workspace) {
+        optimizeSilent(graph, partition, maxIterations, workspace, Deadline.NONE);
+    }
+    
+    /**
+     * Wersja bez komunikatów przerywana po upływie terminu
+     */
+    public void optimizeSilent(Graph graph, Partition partition, int maxIterations, RefinementWorkspace workspace,
+                               Deadline deadline) {
+        switch (this) {
+            case FIDUCCIA_MATTHEYSES:
+                FiducciaMattheyses.optimizeWithFiducciaMattheysesSilent(graph, partition, maxIterations, workspace,
+                                                                        deadline);
+                break;
+            default:
+                KernighanLin.optimizeWithKernighanLinSilent(graph, partition, maxIterations, workspace, deadline);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
\ No newline at end of file
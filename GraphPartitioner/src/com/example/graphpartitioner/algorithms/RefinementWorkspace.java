@@ -0,0 +1,110 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Partition;
+
+import java.util.Arrays;
+
+/**
+ * Wielokrotnego użytku bufory dla algorytmów optymalizacji podziału.
+ * Tworzony raz na uruchomienie i przekazywany do kolejnych przejść i prób,
+ * dzięki czemu przejście nie alokuje pamięci ani nie kopiuje całego podziału.
+ * Nie jest bezpieczny wątkowo - każdy wątek potrzebuje własnej instancji.
+ */
+public class RefinementWorkspace {
+    
+    // Dziennik cofania: ruchy bieżącego przejścia w kolejności wykonania
+    private int[] movedVertices = new int[0];
+    private int[] movedFrom = new int[0];
+    private int moveCount;
+    
+    // Znaczniki wierzchołków ważne tylko w bieżącym przejściu
+    private int[] marks = new int[0];
+    private int markStamp;
+    
+    // Kubełki zysków algorytmu Fiduccii-Mattheysesa
+    int[] bucketHeads = new int[0];
+    int[] next = new int[0];
+    int[] prev = new int[0];
+    int[] bucketOf = new int[0];
+    int[] moveGain = new int[0];
+    int[] moveTarget = new int[0];
+    
+    /**
+     * Przygotowuje bufory dla grafu o danej liczbie wierzchołków
+     */
+    void ensureCapacity(int numVertices) {
+        if (marks.length < numVertices) {
+            movedVertices = new int[numVertices];
+            movedFrom = new int[numVertices];
+            marks = new int[numVertices];
+            markStamp = 0;
+        }
+    }
+    
+    /**
+     * Przygotowuje kubełki zysków dla danej liczby wierzchołków i maksymalnego stopnia
+     */
+    void ensureBucketCapacity(int numVertices, int maxDegree) {
+        ensureCapacity(numVertices);
+        
+        if (bucketHeads.length < 2 * maxDegree + 1) {
+            bucketHeads = new int[2 * maxDegree + 1];
+            Arrays.fill(bucketHeads, -1);
+        }
+        if (bucketOf.length < numVertices) {
+            next = new int[numVertices];
+            prev = new int[numVertices];
+            bucketOf = new int[numVertices];
+            moveGain = new int[numVertices];
+            moveTarget = new int[numVertices];
+            Arrays.fill(bucketOf, -1);
+        }
+    }
+    
+    /**
+     * Rozpoczyna nowe przejście: czyści dziennik i wszystkie znaczniki w O(1)
+     */
+    void beginPass() {
+        moveCount = 0;
+        markStamp++;
+        if (markStamp == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            markStamp = 1;
+        }
+    }
+    
+    void mark(int vertex) {
+        marks[vertex] = markStamp;
+    }
+    
+    boolean isMarked(int vertex) {
+        return marks[vertex] == markStamp;
+    }
+    
+    /**
+     * Zapisuje ruch w dzienniku cofania
+     */
+    void logMove(int vertex, int oldPart) {
+        movedVertices[moveCount] = vertex;
+        movedFrom[moveCount] = oldPart;
+        moveCount++;
+    }
+    
+    int getMoveCount() {
+        return moveCount;
+    }
+    
+    int getMovedVertex(int index) {
+        return movedVertices[index];
+    }
+    
+    /**
+     * Cofa ruchy wykonane po najlepszym prefiksie, w odwrotnej kolejności
+     */
+    void rollback(Partition partition, int prefixLength) {
+        while (moveCount > prefixLength) {
+            moveCount--;
+            partition.setAssignment(movedVertices[moveCount], movedFrom[moveCount]);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Graf przenumerowany według wybranej kolejności wierzchołków wraz z permutacją,
+ * która pozwala przenieść podział z powrotem na oryginalne numery wierzchołków.
+ */
+public class ReorderedGraph {
+    private final Graph graph;       // Nieskierowany widok grafu w nowej numeracji
+    private final int[] newToOld;    // newToOld[nowy numer] = stary numer
+    private final int[] oldToNew;    // oldToNew[stary numer] = nowy numer
+    
+    private ReorderedGraph(Graph graph, int[] newToOld, int[] oldToNew) {
+        this.graph = graph;
+        this.newToOld = newToOld;
+        this.oldToNew = oldToNew;
+    }
+    
+    /**
+     * Przenumerowuje nieskierowany widok grafu; listy sąsiadów są posortowane według nowych numerów
+     */
+    public static ReorderedGraph reorder(Graph graph, VertexOrdering ordering) {
+        Graph view = graph.getUndirectedView();
+        int n = view.getVertexCount();
+        int[] newToOld = ordering.computeOrder(view);
+        int[] oldToNew = new int[n];
+        for (int v = 0; v < n; v++) {
+            oldToNew[newToOld[v]] = v;
+        }
+        
+        int[] rowPointers = new int[n + 1];
+        int[] adjacencyList = new int[view.getAdjacencyLength()];
+        for (int v = 0; v < n; v++) {
+            int old = newToOld[v];
+            int start = rowPointers[v];
+            int write = start;
+            for (int i = view.getNeighborsStart(old); i < view.getNeighborsEnd(old); i++) {
+                adjacencyList[write++] = oldToNew[view.getNeighborAt(i)];
+            }
+            Arrays.sort(adjacencyList, start, write);
+            rowPointers[v + 1] = write;
+        }
+        
+        Graph reordered = new Graph(n, view.getEdgeCount(), rowPointers, adjacencyList);
+        return new ReorderedGraph(reordered, newToOld, oldToNew);
+    }
+    
+    /**
+     * Przenosi podział przenumerowanego grafu na oryginalne numery wierzchołków
+     * Wynik śledzi połączenia na oryginalnym grafie, więc zna liczbę przeciętych krawędzi
+     */
+    public Partition toOriginal(Partition reordered, Graph originalGraph) {
+        int n = newToOld.length;
+        int[] assignments = new int[n];
+        for (int old = 0; old < n; old++) {
+            assignments[old] = reordered.getAssignment(oldToNew[old]);
+        }
+        
+        int[] partSizes = Arrays.copyOf(reordered.getPartSizes(), reordered.getPartCount());
+        Partition partition = new Partition(assignments, partSizes, reordered.getPartCount(),
+                                            reordered.getCutEdges(), reordered.getMarginPercent());
+        partition.enableConnectivity(originalGraph);
+        return partition;
+    }
+    
+    /**
+     * Uruchamia algorytm podziału na grafie przenumerowanym i zwraca podział w oryginalnej numeracji
+     * Dla VertexOrdering.NONE algorytm działa bezpośrednio na grafie wejściowym
+     */
+    public static Partition partition(Graph graph, VertexOrdering ordering, Function<Graph, Partition> partitioner) {
+        if (ordering == VertexOrdering.NONE) {
+            return partitioner.apply(graph);
+        }
+        
+        ReorderedGraph reordered = reorder(graph, ordering);
+        Partition partition = partitioner.apply(reordered.getGraph());
+        return partition != null ? reordered.toOriginal(partition, graph) : null;
+    }
+    
+    // Gettery
+    public Graph getGraph() {
+        return graph;
+    }
+    
+    public int[] getNewToOld() {
+        return newToOld;
+    }
+    
+    public int[] getOldToNew() {
+        return oldToNew;
+    }
+}
\ No newline at end of file
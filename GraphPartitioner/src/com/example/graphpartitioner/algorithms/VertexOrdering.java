@@ -0,0 +1,219 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Kolejności wierzchołków poprawiające lokalność dostępu do pamięci.
+ * Po przenumerowaniu sąsiedzi wierzchołka mają zwykle bliskie numery, więc odczyty
+ * listy sąsiedztwa i tablicy przypisań trafiają w te same linie pamięci podręcznej.
+ */
+public enum VertexOrdering {
+    NONE("Bez zmiany"),
+    REVERSE_CUTHILL_MCKEE("Odwrotny Cuthill-McKee"),
+    BFS("BFS"),
+    DEGREE("Według stopnia");
+    
+    /**
+     * Maksymalna liczba przebiegów BFS przy szukaniu wierzchołka pseudo-peryferyjnego
+     */
+    private static final int PERIPHERAL_SEARCH_ROUNDS = 5;
+    
+    private final String displayName;
+    
+    VertexOrdering(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Wyznacza nową kolejność wierzchołków nieskierowanego widoku grafu
+     * Zwraca tablicę order, gdzie order[nowy numer] = stary numer
+     */
+    public int[] computeOrder(Graph graph) {
+        Graph view = graph.getUndirectedView();
+        switch (this) {
+            case REVERSE_CUTHILL_MCKEE:
+                return reverse(cuthillMcKee(view));
+            case BFS:
+                return breadthFirst(view);
+            case DEGREE:
+                return byDegree(view);
+            default:
+                int[] identity = new int[view.getVertexCount()];
+                for (int v = 0; v < identity.length; v++) {
+                    identity[v] = v;
+                }
+                return identity;
+        }
+    }
+    
+    /**
+     * Cuthill-McKee: BFS z wierzchołka pseudo-peryferyjnego każdej składowej,
+     * sąsiedzi odwiedzani rosnąco według stopnia
+     */
+    private static int[] cuthillMcKee(Graph view) {
+        int n = view.getVertexCount();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] stamp = new int[n];
+        int[] scratch = new int[n];
+        long[] keys = new long[0];
+        int count = 0;
+        int round = 0;
+        
+        // Pierwszy nieodwiedzony wierzchołek w kolejności stopni ma najmniejszy stopień w swojej składowej
+        for (int start : byAscendingDegree(view)) {
+            if (visited[start]) {
+                continue;
+            }
+            
+            // Szukanie wierzchołka pseudo-peryferyjnego (George-Liu)
+            int root = start;
+            int eccentricity = -1;
+            for (int r = 0; r < PERIPHERAL_SEARCH_ROUNDS; r++) {
+                round++;
+                int[] result = lastLevel(view, root, stamp, round, scratch);
+                int levels = result[0];
+                if (levels <= eccentricity) {
+                    break;
+                }
+                eccentricity = levels;
+                root = result[1];
+            }
+            
+            int head = count;
+            order[count++] = root;
+            visited[root] = true;
+            while (head < count) {
+                int u = order[head++];
+                int degree = view.getDegree(u);
+                if (keys.length < degree) {
+                    keys = new long[Math.max(degree, keys.length * 2)];
+                }
+                
+                int found = 0;
+                for (int i = view.getNeighborsStart(u); i < view.getNeighborsEnd(u); i++) {
+                    int v = view.getNeighborAt(i);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        keys[found++] = ((long) view.getDegree(v) << 32) | v;
+                    }
+                }
+                Arrays.sort(keys, 0, found);
+                for (int i = 0; i < found; i++) {
+                    order[count++] = (int) keys[i];
+                }
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * BFS z wierzchołka root; zwraca {liczba poziomów, wierzchołek ostatniego poziomu o najmniejszym stopniu}
+     */
+    private static int[] lastLevel(Graph view, int root, int[] stamp, int round, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        stamp[root] = round;
+        int levels = 0;
+        int best = root;
+        
+        while (head < tail) {
+            int levelEnd = tail;
+            best = queue[head];
+            levels++;
+            while (head < levelEnd) {
+                int u = queue[head++];
+                if (view.getDegree(u) < view.getDegree(best)) {
+                    best = u;
+                }
+                for (int i = view.getNeighborsStart(u); i < view.getNeighborsEnd(u); i++) {
+                    int v = view.getNeighborAt(i);
+                    if (stamp[v] != round) {
+                        stamp[v] = round;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+        return new int[] {levels, best};
+    }
+    
+    /**
+     * Zwykłe przeszukiwanie wszerz kolejnych składowych, od najmniejszego nieodwiedzonego numeru
+     */
+    private static int[] breadthFirst(Graph view) {
+        int n = view.getVertexCount();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int count = 0;
+        
+        for (int start = 0; start < n; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int head = count;
+            order[count++] = start;
+            visited[start] = true;
+            while (head < count) {
+                int u = order[head++];
+                for (int i = view.getNeighborsStart(u); i < view.getNeighborsEnd(u); i++) {
+                    int v = view.getNeighborAt(i);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[count++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Wierzchołki malejąco według stopnia - wierzchołki o wielu sąsiadach trafiają obok siebie
+     */
+    private static int[] byDegree(Graph view) {
+        return reverse(byAscendingDegree(view));
+    }
+    
+    /**
+     * Wierzchołki rosnąco według stopnia (sortowanie przez zliczanie, stabilne względem numerów)
+     */
+    private static int[] byAscendingDegree(Graph view) {
+        int n = view.getVertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, view.getDegree(v));
+        }
+        
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            start[view.getDegree(v) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            start[d + 1] += start[d];
+        }
+        
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[view.getDegree(v)]++] = v;
+        }
+        return order;
+    }
+    
+    private static int[] reverse(int[] order) {
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
\ No newline at end of file
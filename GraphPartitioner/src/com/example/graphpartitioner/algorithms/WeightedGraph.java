@@ -0,0 +1,157 @@
+package com.example.graphpartitioner.algorithms;
+
+import com.example.graphpartitioner.model.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Graf ważony w formacie CSR używany przez algorytmy wielopoziomowe.
+ * Waga wierzchołka to liczba scalonych wierzchołków grafu wejściowego,
+ * a waga krawędzi to liczba scalonych krawędzi.
+ */
+class WeightedGraph {
+    private final int vertexCount;
+    private final int[] rowPointers;
+    private final int[] adjacencyList;
+    private final int[] edgeWeights;
+    private final int[] vertexWeights;
+    private final int totalVertexWeight;
+    
+    WeightedGraph(int vertexCount, int[] rowPointers, int[] adjacencyList,
+                  int[] edgeWeights, int[] vertexWeights) {
+        this.vertexCount = vertexCount;
+        this.rowPointers = rowPointers;
+        this.adjacencyList = adjacencyList;
+        this.edgeWeights = edgeWeights;
+        this.vertexWeights = vertexWeights;
+        
+        int total = 0;
+        for (int weight : vertexWeights) {
+            total += weight;
+        }
+        this.totalVertexWeight = total;
+    }
+    
+    /**
+     * Tworzy graf o jednostkowych wagach z nieskierowanego widoku grafu
+     */
+    static WeightedGraph fromGraph(Graph graph) {
+        Graph view = graph.getUndirectedView();
+        int[] edgeWeights = new int[view.getAdjacencyLength()];
+        int[] vertexWeights = new int[view.getVertexCount()];
+        Arrays.fill(edgeWeights, 1);
+        Arrays.fill(vertexWeights, 1);
+        
+        // Graf poza stertą jest kopiowany - kolejne poziomy i tak powstają na stercie
+        int[] rowPointers;
+        int[] adjacencyList;
+        if (view.isOffHeap()) {
+            rowPointers = new int[view.getVertexCount() + 1];
+            adjacencyList = new int[view.getAdjacencyLength()];
+            for (int v = 0; v <= view.getVertexCount(); v++) {
+                rowPointers[v] = view.getStorage().getRowPointer(v);
+            }
+            for (int i = 0; i < adjacencyList.length; i++) {
+                adjacencyList[i] = view.getNeighborAt(i);
+            }
+        } else {
+            rowPointers = view.getRowPointers();
+            adjacencyList = view.getAdjacencyList();
+        }
+        
+        return new WeightedGraph(view.getVertexCount(), rowPointers, adjacencyList, edgeWeights, vertexWeights);
+    }
+    
+    /**
+     * Zwraca graf bez wag o tej samej strukturze (dla istniejących inicjalizatorów)
+     */
+    Graph toGraph() {
+        return new Graph(vertexCount, adjacencyList.length / 2, rowPointers, adjacencyList);
+    }
+    
+    /**
+     * Oblicza sumę wag krawędzi między różnymi częściami
+     */
+    long cutWeight(int[] parts) {
+        long cut = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = rowPointers[v]; i < rowPointers[v + 1]; i++) {
+                int u = adjacencyList[i];
+                if (v < u && parts[v] != parts[u]) {
+                    cut += edgeWeights[i];
+                }
+            }
+        }
+        return cut;
+    }
+    
+    /**
+     * Wyodrębnia podgraf indukowany przez wierzchołki jednej części
+     * vertices zawiera wierzchołki części rosnąco, localIndex ich numery w podgrafie
+     */
+    WeightedGraph inducedSubgraph(int[] parts, int part, int[] vertices, int[] localIndex) {
+        int[] subRowPointers = new int[vertices.length + 1];
+        int[] subVertexWeights = new int[vertices.length];
+        
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            int degree = 0;
+            for (int j = rowPointers[v]; j < rowPointers[v + 1]; j++) {
+                if (parts[adjacencyList[j]] == part) {
+                    degree++;
+                }
+            }
+            subRowPointers[i + 1] = subRowPointers[i] + degree;
+            subVertexWeights[i] = vertexWeights[v];
+        }
+        
+        int[] subAdjacency = new int[subRowPointers[vertices.length]];
+        int[] subEdgeWeights = new int[subAdjacency.length];
+        int write = 0;
+        for (int v : vertices) {
+            for (int j = rowPointers[v]; j < rowPointers[v + 1]; j++) {
+                int u = adjacencyList[j];
+                if (parts[u] == part) {
+                    subAdjacency[write] = localIndex[u];
+                    subEdgeWeights[write] = edgeWeights[j];
+                    write++;
+                }
+            }
+        }
+        
+        return new WeightedGraph(vertices.length, subRowPointers, subAdjacency, subEdgeWeights, subVertexWeights);
+    }
+    
+    int maxVertexWeight() {
+        int max = 0;
+        for (int weight : vertexWeights) {
+            max = Math.max(max, weight);
+        }
+        return max;
+    }
+    
+    // Gettery
+    int getVertexCount() {
+        return vertexCount;
+    }
+    
+    int[] getRowPointers() {
+        return rowPointers;
+    }
+    
+    int[] getAdjacencyList() {
+        return adjacencyList;
+    }
+    
+    int[] getEdgeWeights() {
+        return edgeWeights;
+    }
+    
+    int[] getVertexWeights() {
+        return vertexWeights;
+    }
+    
+    int getTotalVertexWeight() {
+        return totalVertexWeight;
+    }
+}
\ No newline at end of file
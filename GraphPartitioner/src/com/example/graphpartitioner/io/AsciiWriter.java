@@ -0,0 +1,160 @@
+package com.example.graphpartitioner.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buforowany zapis tekstu ASCII do pliku przez FileChannel.
+ * Liczby są zamieniane na cyfry bezpośrednio w buforze bajtów wielokrotnego użytku,
+ * bez tworzenia obiektów String, a bufor trafia do kanału dużymi blokami.
+ */
+class AsciiWriter implements Closeable {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * Najdłuższa liczba int w zapisie dziesiętnym: "-2147483648"
+     */
+    private static final int MAX_INT_LENGTH = 11;
+    
+    private static final int[] POWERS_OF_TEN = {
+        10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+    };
+    
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    
+    private final FileChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    private long written;              // Bajty przekazane już do kanału
+    
+    /**
+     * Otwiera plik do zapisu od początku; sekcje CSRRG wczytane z tego pliku są wcześniej odłączane
+     */
+    AsciiWriter(String filePath) throws IOException {
+        CsrrgSections.detach(filePath);
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+    
+    void write(byte b) throws IOException {
+        if (position == BUFFER_SIZE) {
+            flush();
+        }
+        bytes[position++] = b;
+    }
+    
+    /**
+     * Zapisuje fragment tablicy bajtów; długie fragmenty trafiają do kanału z pominięciem bufora
+     */
+    void write(byte[] source, int offset, int length) throws IOException {
+        if (length > BUFFER_SIZE - position) {
+            flush();
+            if (length >= BUFFER_SIZE) {
+                ByteBuffer direct = ByteBuffer.wrap(source, offset, length);
+                while (direct.hasRemaining()) {
+                    channel.write(direct);
+                }
+                written += length;
+                return;
+            }
+        }
+        System.arraycopy(source, offset, bytes, position, length);
+        position += length;
+    }
+    
+    /**
+     * Zapisuje tekst złożony wyłącznie ze znaków ASCII
+     */
+    void write(String text) throws IOException {
+        byte[] encoded = text.getBytes(StandardCharsets.US_ASCII);
+        write(encoded, 0, encoded.length);
+    }
+    
+    /**
+     * Zapisuje liczbę w zapisie dziesiętnym
+     */
+    void writeInt(int value) throws IOException {
+        if (BUFFER_SIZE - position < MAX_INT_LENGTH) {
+            flush();
+        }
+        
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                write("-2147483648");
+                return;
+            }
+            bytes[position++] = '-';
+            value = -value;
+        }
+        
+        // Cyfry są wpisywane od końca, od pozycji wyznaczonej przez liczbę cyfr
+        int end = position + digitCount(value);
+        int index = end;
+        do {
+            int quotient = value / 10;
+            bytes[--index] = (byte) ('0' + (value - quotient * 10));
+            value = quotient;
+        } while (value != 0);
+        position = end;
+    }
+    
+    private static int digitCount(int value) {
+        int count = 1;
+        while (count <= POWERS_OF_TEN.length && value >= POWERS_OF_TEN[count - 1]) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Zapisuje liczby z tablicy rozdzielone separatorem
+     */
+    void writeIntList(int[] values, int from, int to, byte separator) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                write(separator);
+            }
+            writeInt(values[i]);
+        }
+    }
+    
+    /**
+     * Kończy linię separatorem systemowym (jak PrintWriter.println)
+     */
+    void newLine() throws IOException {
+        write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+    
+    /**
+     * Pozycja w pliku, pod którą trafi następny zapisany bajt
+     */
+    long getFilePosition() {
+        return written + position;
+    }
+    
+    void flush() throws IOException {
+        buffer.clear();
+        buffer.limit(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += position;
+        position = 0;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
\ No newline at end of file
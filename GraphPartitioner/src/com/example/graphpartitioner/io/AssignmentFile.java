@@ -0,0 +1,245 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.Partition;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Binarny format przypisania wierzchołków do części dla dowolnej liczby części.
+ *
+ * Układ pliku (little-endian):
+ * - nagłówek HEADER_SIZE bajtów: magic, wersja, liczba wierzchołków, liczba części,
+ *   liczba bitów na wierzchołek (ceil(log2 k)), liczba przeciętych krawędzi, suma kontrolna CRC32
+ * - numery części upakowane po bitsPerVertex bitów, od najmłodszego bitu, w 32-bitowych słowach
+ *
+ * Dla k = 2 dane są bit w bit zgodne z "prostym przypisaniem binarnym".
+ * Wczytywanie czyta słowa do bufora na stercie i dekoduje je równolegle w przedziałach wierzchołków.
+ */
+public class AssignmentFile {
+    
+    /**
+     * Bajty "GASN" odczytane jako liczba little-endian
+     */
+    public static final int MAGIC = 0x4E534147;
+    
+    public static final int VERSION = 1;
+    
+    public static final String EXTENSION = "gasn";
+    
+    private static final int HEADER_SIZE = 32;
+    
+    private static final int CHECKSUM_OFFSET = 24;
+    
+    /**
+     * Liczba słów w buforze zapisu
+     */
+    private static final int WRITE_BUFFER_WORDS = 1 << 14;
+    
+    /**
+     * Minimalna liczba wierzchołków w przedziale dekodowanym równolegle (wielokrotność 32,
+     * dzięki czemu każdy przedział zaczyna się na granicy słowa)
+     */
+    private static final int MIN_CHUNK_VERTICES = 1 << 16;
+    
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    private static final int DEFAULT_MARGIN_PERCENT = 10;
+    
+    /**
+     * Liczba bitów potrzebna do zapisania numerów części 0..partCount-1
+     */
+    public static int bitsPerVertex(int partCount) {
+        return partCount <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(partCount - 1);
+    }
+    
+    /**
+     * Zapisuje podział; każdy wierzchołek musi być przypisany do części z zakresu [0, partCount)
+     */
+    public static void write(String filePath, Partition partition) throws IOException {
+        int[] assignments = partition.getAssignments();
+        int partCount = partition.getPartCount();
+        int bits = bitsPerVertex(partCount);
+        for (int v = 0; v < assignments.length; v++) {
+            if (assignments[v] < 0 || assignments[v] >= partCount) {
+                throw new IOException("Vertex " + v + " is not assigned to a valid part");
+            }
+        }
+        
+        CsrrgSections.detach(filePath);
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_WORDS * 4).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            channel.position(HEADER_SIZE);
+            
+            // Bity kolejnych wierzchołków są dopisywane do akumulatora i zrzucane pełnymi słowami
+            long pending = 0;
+            int pendingBits = 0;
+            for (int v = 0; v < assignments.length && bits > 0; v++) {
+                pending |= (long) assignments[v] << pendingBits;
+                pendingBits += bits;
+                if (pendingBits >= 32) {
+                    putWord(channel, buffer, crc, (int) pending);
+                    pending >>>= 32;
+                    pendingBits -= 32;
+                }
+            }
+            if (pendingBits > 0) {
+                putWord(channel, buffer, crc, (int) pending);
+            }
+            flush(channel, buffer, crc);
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(assignments.length);
+            header.putInt(partCount);
+            header.putInt(bits);
+            header.putInt(partition.getCutEdges());
+            header.putLong(crc.getValue());
+            header.flip();
+            
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+    
+    private static void putWord(FileChannel channel, ByteBuffer buffer, CRC32 crc, int word) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush(channel, buffer, crc);
+        }
+        buffer.putInt(word);
+    }
+    
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    /**
+     * Wczytuje podział: dane są wczytywane do bufora (FileBytes), suma kontrolna sprawdzana, a numery części
+     * dekodowane równolegle; liczba przeciętych krawędzi pochodzi z nagłówka
+     */
+    public static Partition read(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File too short for an assignment header");
+            }
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Unexpected end of assignment header");
+                }
+            }
+            header.flip();
+            
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not an assignment file");
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported assignment file version: " + version);
+            }
+            
+            int vertexCount = header.getInt(8);
+            int partCount = header.getInt(12);
+            int bits = header.getInt(16);
+            int cutEdges = header.getInt(20);
+            long checksum = header.getLong(CHECKSUM_OFFSET);
+            if (vertexCount < 0 || partCount < 1 || bits != bitsPerVertex(partCount)) {
+                throw new IOException("Invalid assignment header");
+            }
+            
+            long wordCount = ((long) vertexCount * bits + 31) / 32;
+            if (HEADER_SIZE + 4 * wordCount != size) {
+                throw new IOException("Assignment file size mismatch: expected " + (HEADER_SIZE + 4 * wordCount)
+                                      + " bytes, found " + size);
+            }
+            
+            ByteBuffer bytes = FileBytes.read(channel, HEADER_SIZE, 4 * wordCount).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            crc.update(bytes.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("Assignment file checksum mismatch");
+            }
+            
+            int[] assignments = new int[vertexCount];
+            int[] partSizes = decode(bytes.asIntBuffer(), bits, assignments, partCount);
+            return new Partition(assignments, partSizes, partCount, cutEdges, DEFAULT_MARGIN_PERCENT);
+        }
+    }
+    
+    /**
+     * Dekoduje numery części równolegle w przedziałach wierzchołków i zwraca rozmiary części
+     */
+    private static int[] decode(IntBuffer words, int bits, int[] assignments, int partCount) throws IOException {
+        int n = assignments.length;
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        long perChunk = Math.max(MIN_CHUNK_VERTICES, (long) n / ((long) threads * CHUNKS_PER_THREAD) + 1);
+        perChunk = (perChunk + 31) & ~31L;
+        int chunks = (int) Math.max(1, (n + perChunk - 1) / perChunk);
+        long chunkVertices = perChunk;
+        
+        int[][] sizes = new int[chunks][partCount];
+        IntStream indices = IntStream.range(0, chunks);
+        (chunks > 1 ? indices.parallel() : indices).forEach(c -> {
+            int first = (int) (c * chunkVertices);
+            int last = (int) Math.min(n, first + chunkVertices);
+            int[] count = sizes[c];
+            if (bits == 0) {
+                count[0] += last - first;
+                return;
+            }
+            
+            // Przedział zaczyna się na granicy słowa, bo first * bits jest wielokrotnością 32
+            int word = (int) ((long) first * bits / 32);
+            int mask = (1 << bits) - 1;
+            long buffered = 0;
+            int available = 0;
+            for (int v = first; v < last; v++) {
+                if (available < bits) {
+                    buffered |= (words.get(word++) & 0xFFFFFFFFL) << available;
+                    available += 32;
+                }
+                int part = (int) buffered & mask;
+                buffered >>>= bits;
+                available -= bits;
+                assignments[v] = part;
+                if (part < partCount) {
+                    count[part]++;
+                }
+            }
+        });
+        
+        int[] partSizes = new int[partCount];
+        long total = 0;
+        for (int[] count : sizes) {
+            for (int p = 0; p < partCount; p++) {
+                partSizes[p] += count[p];
+                total += count[p];
+            }
+        }
+        if (total != n) {
+            throw new IOException("Assignment file contains part numbers out of range");
+        }
+        return partSizes;
+    }
+}
\ No newline at end of file
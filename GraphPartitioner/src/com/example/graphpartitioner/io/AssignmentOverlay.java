@@ -0,0 +1,243 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.Partition;
+import com.example.graphpartitioner.utils.IntList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Nakładanie zapisanych przypisań na już wczytany graf.
+ * Pliki tekstowe są przeglądane bajt po bajcie w buforze z zawartością pliku (bez split i HashMap),
+ * a rozmiary części i liczba przeciętych krawędzi są liczone jednym równoległym przejściem
+ * po nieskierowanym widoku grafu, więc przełączanie między wynikami nie wymaga wczytywania grafu.
+ */
+class AssignmentOverlay {
+    
+    private static final byte[] VERTEX_PREFIX = "Wierzchołek".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ARROW = "->".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PART_PREFIX = "Podgraf".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final int DEFAULT_MARGIN_PERCENT = 10;
+    
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    /**
+     * Minimalna liczba wierzchołków w przedziale liczonym równolegle
+     */
+    private static final int MIN_CHUNK_VERTICES = 4096;
+    
+    /**
+     * Odbiorca par (wierzchołek, część) odczytanych z pliku tekstowego
+     */
+    @FunctionalInterface
+    interface AssignmentConsumer {
+        void accept(int vertex, int part) throws IOException;
+    }
+    
+    /**
+     * Nakłada tekstowe przypisanie "Wierzchołek X -> Podgraf Y" na graf
+     * Wierzchołki bez linii trafiają do części 0, jak przy zwykłym wczytywaniu
+     */
+    static Partition applyText(String filePath, Graph graph) throws IOException {
+        int n = graph.getVertexCount();
+        int[] assignments = new int[n];
+        int[] maxPart = {0};
+        scanText(filePath, (vertex, part) -> {
+            if (vertex >= n) {
+                throw new IOException("Assignment refers to vertex " + vertex + " but the graph has " + n + " vertices");
+            }
+            assignments[vertex] = part;
+            maxPart[0] = Math.max(maxPart[0], part);
+        });
+        return overlay(graph, assignments, maxPart[0] + 1);
+    }
+    
+    /**
+     * Nakłada proste przypisanie binarne (jeden bit na wierzchołek) na graf
+     * Plik musi mieć dokładnie tyle bajtów, ile potrzeba dla wierzchołków grafu
+     */
+    static Partition applyBinary(String filePath, Graph graph) throws IOException {
+        int n = graph.getVertexCount();
+        int[] assignments = new int[n];
+        
+        ByteBuffer buffer = FileBytes.read(filePath, "Assignment");
+        long size = buffer.limit();
+        if (size != ((long) n + 7) / 8) {
+            throw new IOException("Assignment file covers " + size * 8 + " vertices but the graph has " + n);
+        }
+        for (int v = 0; v < n; v++) {
+            assignments[v] = (buffer.get(v >>> 3) >> (v & 7)) & 1;
+        }
+        
+        return overlay(graph, assignments, 2);
+    }
+    
+    /**
+     * Nakłada spakowane przypisanie (AssignmentFile) na graf; liczba części pochodzi z nagłówka
+     */
+    static Partition applyPacked(String filePath, Graph graph) throws IOException {
+        Partition stored = AssignmentFile.read(filePath);
+        int n = graph.getVertexCount();
+        if (stored.getAssignments().length != n) {
+            throw new IOException("Assignment file covers " + stored.getAssignments().length +
+                                  " vertices but the graph has " + n);
+        }
+        return overlay(graph, stored.getAssignments(), stored.getPartCount());
+    }
+    
+    /**
+     * Przegląda plik tekstowy i przekazuje każdą poprawną linię "Wierzchołek X -> Podgraf Y"
+     * Pozostałe linie są pomijane, jak w GraphLoader.loadSimpleAssignmentText
+     */
+    static void scanText(String filePath, AssignmentConsumer consumer) throws IOException {
+        ByteBuffer buffer = FileBytes.read(filePath, "Assignment");
+        int end = buffer.limit();
+        int position = 0;
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            scanLine(buffer, position, lineEnd, consumer);
+            position = lineEnd + 1;
+        }
+    }
+    
+    private static void scanLine(ByteBuffer buffer, int start, int end, AssignmentConsumer consumer) throws IOException {
+        int position = skipSpaces(buffer, start, end);
+        position = expect(buffer, position, end, VERTEX_PREFIX);
+        if (position < 0 || position == end || !isSpace(buffer.get(position))) {
+            return;
+        }
+        
+        position = skipSpaces(buffer, position, end);
+        long vertex = 0;
+        int digits = 0;
+        for (; position < end && isDigit(buffer.get(position)) && vertex <= Integer.MAX_VALUE; position++, digits++) {
+            vertex = vertex * 10 + buffer.get(position) - '0';
+        }
+        if (digits == 0 || vertex > Integer.MAX_VALUE) {
+            return;
+        }
+        
+        position = expect(buffer, skipSpaces(buffer, position, end), end, ARROW);
+        if (position < 0) {
+            return;
+        }
+        position = expect(buffer, skipSpaces(buffer, position, end), end, PART_PREFIX);
+        if (position < 0 || position == end || !isSpace(buffer.get(position))) {
+            return;
+        }
+        
+        position = skipSpaces(buffer, position, end);
+        long part = 0;
+        digits = 0;
+        for (; position < end && isDigit(buffer.get(position)) && part <= Integer.MAX_VALUE; position++, digits++) {
+            part = part * 10 + buffer.get(position) - '0';
+        }
+        if (digits == 0 || part > Integer.MAX_VALUE || skipSpaces(buffer, position, end) != end) {
+            return;
+        }
+        
+        consumer.accept((int) vertex, (int) part);
+    }
+    
+    /**
+     * Zwraca pozycję za oczekiwanym ciągiem bajtów lub -1, gdy linia go nie zawiera w tym miejscu
+     */
+    private static int expect(ByteBuffer buffer, int position, int end, byte[] expected) {
+        if (position < 0 || end - position < expected.length) {
+            return -1;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(position + i) != expected[i]) {
+                return -1;
+            }
+        }
+        return position + expected.length;
+    }
+    
+    private static int skipSpaces(ByteBuffer buffer, int position, int end) {
+        while (position < end && isSpace(buffer.get(position))) {
+            position++;
+        }
+        return position;
+    }
+    
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+    
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+    
+    /**
+     * Wczytuje tekstowe przypisanie bez grafu; liczba wierzchołków to największy numer + 1
+     */
+    static int[] readText(String filePath) throws IOException {
+        IntList vertices = new IntList();
+        IntList parts = new IntList();
+        int[] maxVertex = {-1};
+        scanText(filePath, (vertex, part) -> {
+            vertices.add(vertex);
+            parts.add(part);
+            maxVertex[0] = Math.max(maxVertex[0], vertex);
+        });
+        
+        int[] assignments = new int[maxVertex[0] + 1];
+        for (int i = 0; i < vertices.size(); i++) {
+            assignments[vertices.get(i)] = parts.get(i);
+        }
+        return assignments;
+    }
+    
+    /**
+     * Tworzy podział grafu z gotowych przypisań, licząc rozmiary części i przecięte krawędzie
+     * w jednym przejściu (wynik zgodny z PartitionUtils.calculateCutEdges)
+     */
+    static Partition overlay(Graph graph, int[] assignments, int partCount) {
+        Graph view = graph.getUndirectedView();
+        int n = assignments.length;
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        int chunks = (int) Math.max(1, Math.min((long) threads * CHUNKS_PER_THREAD, n / MIN_CHUNK_VERTICES));
+        int[][] sizes = new int[chunks][partCount];
+        long[] cuts = new long[chunks];
+        
+        IntStream indices = IntStream.range(0, chunks);
+        (chunks > 1 ? indices.parallel() : indices).forEach(c -> {
+            int first = (int) ((long) n * c / chunks);
+            int last = (int) ((long) n * (c + 1) / chunks);
+            int[] count = sizes[c];
+            long cut = 0;
+            for (int u = first; u < last; u++) {
+                int partU = assignments[u];
+                count[partU]++;
+                for (int i = view.getNeighborsStart(u); i < view.getNeighborsEnd(u); i++) {
+                    int v = view.getNeighborAt(i);
+                    // Każda krawędź jest liczona raz, od mniejszego końca
+                    if (u < v && assignments[v] != partU) {
+                        cut++;
+                    }
+                }
+            }
+            cuts[c] = cut;
+        });
+        
+        int[] partSizes = new int[partCount];
+        long cutEdges = 0;
+        for (int c = 0; c < chunks; c++) {
+            for (int p = 0; p < partCount; p++) {
+                partSizes[p] += sizes[c][p];
+            }
+            cutEdges += cuts[c];
+        }
+        
+        return new Partition(assignments, partSizes, partCount, (int) cutEdges, DEFAULT_MARGIN_PERCENT);
+    }
+}
\ No newline at end of file
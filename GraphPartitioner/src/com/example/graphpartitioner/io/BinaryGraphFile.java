@@ -0,0 +1,385 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.CompressedGraph;
+import com.example.graphpartitioner.model.CsrStorage;
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.MappedCsrStorage;
+import com.example.graphpartitioner.model.MappedIntArray;
+import com.example.graphpartitioner.utils.Pair;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Binarny format grafu CSR otwierany przez mapowanie pliku do pamięci.
+ *
+ * Układ pliku (little-endian):
+ * - nagłówek HEADER_SIZE bajtów: magic, wersja, flagi, liczba wierzchołków, liczba krawędzi,
+ *   długość listy sąsiedztwa, maksymalna wartość i długości tablic pomocniczych CSRRG, suma kontrolna CRC32
+ * - rowPointers (liczba wierzchołków + 1 liczb), adjacencyList
+ * - opcjonalnie secondaryData i secondaryRowPtr z pliku CSRRG
+ *
+ * Z flagą FLAG_COMPRESSED zamiast rowPointers i adjacencyList zapisane są początki wierszy
+ * i wiersze CompressedGraph (bajty dopełnione do wielokrotności 4, ich liczba w polu pod offsetem 36).
+ *
+ * Otwarcie pliku nie kopiuje danych - tablice są mapowane do pamięci (MappedIntArray),
+ * a toMappedGraph tworzy na nich graf poza stertą (plik skompresowany jest dekodowany na stertę).
+ */
+public class BinaryGraphFile {
+    
+    /**
+     * Bajty "GCSR" odczytane jako liczba little-endian
+     */
+    public static final int MAGIC = 0x52534347;
+    
+    public static final int VERSION = 1;
+    
+    public static final String EXTENSION = "gcsr";
+    
+    /**
+     * Flaga: plik zawiera dane pomocnicze CSRRG (linie 1-3)
+     */
+    private static final int FLAG_CSRRG = 1;
+    
+    /**
+     * Flaga: lista sąsiedztwa zapisana w postaci CompressedGraph
+     */
+    private static final int FLAG_COMPRESSED = 2;
+    
+    private static final int HEADER_SIZE = 48;
+    
+    private static final int CHECKSUM_OFFSET = 40;
+    
+    /**
+     * Rozmiar bufora używanego przy zapisie
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    
+    private final int vertexCount;
+    private final int edgeCount;
+    private final boolean hasCsrrgData;
+    private final boolean compressed;
+    private final int compressedLength;   // Liczba bajtów danych skompresowanych (gdy compressed)
+    private final int maxSecondaryValue;
+    private final long checksum;
+    private final MappedIntArray rowPointers;
+    private final MappedIntArray adjacencyList;
+    private final MappedIntArray secondaryData;
+    private final MappedIntArray secondaryRowPtr;
+    
+    private BinaryGraphFile(int vertexCount, int edgeCount, boolean hasCsrrgData, boolean compressed,
+                            int compressedLength, int maxSecondaryValue, long checksum,
+                            MappedIntArray rowPointers, MappedIntArray adjacencyList,
+                            MappedIntArray secondaryData, MappedIntArray secondaryRowPtr) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.hasCsrrgData = hasCsrrgData;
+        this.compressed = compressed;
+        this.compressedLength = compressedLength;
+        this.maxSecondaryValue = maxSecondaryValue;
+        this.checksum = checksum;
+        this.rowPointers = rowPointers;
+        this.adjacencyList = adjacencyList;
+        this.secondaryData = secondaryData;
+        this.secondaryRowPtr = secondaryRowPtr;
+    }
+    
+    /**
+     * Otwiera plik binarny, mapując go do pamięci
+     * Sprawdzany jest tylko nagłówek - sumę kontrolną weryfikuje verifyChecksum()
+     */
+    public static BinaryGraphFile open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File too short for a binary graph header");
+            }
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Unexpected end of binary graph header");
+                }
+            }
+            header.flip();
+            
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary graph file");
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary graph version: " + version);
+            }
+            
+            int flags = header.getInt(8);
+            int vertexCount = header.getInt(12);
+            int edgeCount = header.getInt(16);
+            int adjacencyLength = header.getInt(20);
+            int maxSecondaryValue = header.getInt(24);
+            int secondaryDataLength = header.getInt(28);
+            int secondaryRowPtrLength = header.getInt(32);
+            int compressedLength = header.getInt(36);
+            long checksum = header.getLong(CHECKSUM_OFFSET);
+            boolean compressed = (flags & FLAG_COMPRESSED) != 0;
+            
+            if (vertexCount < 0 || vertexCount == Integer.MAX_VALUE || adjacencyLength < 0
+                || secondaryDataLength < 0 || secondaryRowPtrLength < 0 || compressedLength < 0) {
+                throw new IOException("Invalid binary graph header");
+            }
+            
+            // W pliku skompresowanym w miejscu listy sąsiedztwa są słowa z zakodowanymi wierszami
+            int adjacencyWords = compressed ? (int) (((long) compressedLength + 3) / 4) : adjacencyLength;
+            long payloadSize = 4L * ((long) vertexCount + 1 + adjacencyWords
+                                     + secondaryDataLength + secondaryRowPtrLength);
+            if (HEADER_SIZE + payloadSize != size) {
+                throw new IOException("Binary graph size mismatch: expected " + (HEADER_SIZE + payloadSize)
+                                      + " bytes, found " + size);
+            }
+            
+            // Każda tablica jest mapowana osobno, w razie potrzeby w kilku segmentach
+            long offset = HEADER_SIZE;
+            MappedIntArray rowPointers = MappedIntArray.map(channel, offset, vertexCount + 1);
+            offset += 4L * (vertexCount + 1);
+            MappedIntArray adjacencyList = MappedIntArray.map(channel, offset, adjacencyWords);
+            offset += 4L * adjacencyWords;
+            MappedIntArray secondaryData = MappedIntArray.map(channel, offset, secondaryDataLength);
+            offset += 4L * secondaryDataLength;
+            MappedIntArray secondaryRowPtr = MappedIntArray.map(channel, offset, secondaryRowPtrLength);
+            
+            return new BinaryGraphFile(vertexCount, edgeCount, (flags & FLAG_CSRRG) != 0, compressed, compressedLength,
+                                       maxSecondaryValue, checksum, rowPointers, adjacencyList,
+                                       secondaryData, secondaryRowPtr);
+        }
+    }
+    
+    /**
+     * Zapisuje graf (i opcjonalnie dane CSRRG) w formacie binarnym
+     * Graf jest odczytywany przez CsrStorage, więc można zapisać także graf poza stertą
+     */
+    public static void write(String filePath, Graph graph, CsrrgDataHolder csrrgData) throws IOException {
+        write(filePath, graph, csrrgData, false);
+    }
+    
+    /**
+     * Zapisuje graf, a gdy compress jest ustawione - listę sąsiedztwa w postaci CompressedGraph
+     * (posortowane różnice sąsiadów jako liczby o zmiennej długości, zwykle 1-2 bajty na wpis)
+     */
+    public static void write(String filePath, Graph graph, CsrrgDataHolder csrrgData, boolean compress)
+            throws IOException {
+        CsrrgSections.detach(filePath);
+        int[] secondaryData = csrrgData != null ? csrrgData.getSecondaryData() : new int[0];
+        int[] secondaryRowPtr = csrrgData != null ? csrrgData.getSecondaryRowPtr() : new int[0];
+        CsrStorage storage = graph.getStorage();
+        
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            
+            // Dane za nagłówkiem, który jest zapisywany na końcu razem z sumą kontrolną
+            channel.position(HEADER_SIZE);
+            int compressedLength = 0;
+            if (compress) {
+                CompressedGraph compressedGraph = CompressedGraph.fromGraph(graph);
+                int[] offsets = compressedGraph.getOffsets();
+                byte[] data = compressedGraph.getData();
+                compressedLength = data.length;
+                writeInts(channel, buffer, crc, i -> offsets[i], offsets.length);
+                writeInts(channel, buffer, crc, i -> packWord(data, i), (data.length + 3) / 4);
+            } else {
+                writeInts(channel, buffer, crc, storage::getRowPointer, storage.getRowPointerCount());
+                writeInts(channel, buffer, crc, storage::getNeighborAt, storage.getAdjacencyLength());
+            }
+            writeInts(channel, buffer, crc, i -> secondaryData[i], secondaryData.length);
+            writeInts(channel, buffer, crc, i -> secondaryRowPtr[i], secondaryRowPtr.length);
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt((csrrgData != null ? FLAG_CSRRG : 0) | (compress ? FLAG_COMPRESSED : 0));
+            header.putInt(graph.getVertexCount());
+            header.putInt(graph.getEdgeCount());
+            header.putInt(storage.getAdjacencyLength());
+            header.putInt(csrrgData != null ? csrrgData.getMaxSecondaryValue() : 0);
+            header.putInt(secondaryData.length);
+            header.putInt(secondaryRowPtr.length);
+            header.putInt(compressedLength);
+            header.putLong(crc.getValue());
+            header.flip();
+            
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+    
+    /**
+     * Składa słowo little-endian z bajtów 4 * word .. 4 * word + 3 (brakujące bajty na końcu są zerami)
+     */
+    private static int packWord(byte[] data, int word) {
+        int value = 0;
+        for (int b = 0; b < 4; b++) {
+            int index = 4 * word + b;
+            if (index < data.length) {
+                value |= (data[index] & 0xFF) << (8 * b);
+            }
+        }
+        return value;
+    }
+    
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, CRC32 crc, IntUnaryOperator values,
+                                  int length) throws IOException {
+        buffer.clear();
+        IntBuffer ints = buffer.asIntBuffer();
+        int offset = 0;
+        
+        while (offset < length) {
+            int count = Math.min(ints.capacity(), length - offset);
+            for (int i = 0; i < count; i++) {
+                ints.put(i, values.applyAsInt(offset + i));
+            }
+            offset += count;
+            
+            buffer.clear();
+            buffer.limit(count * 4);
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+    
+    /**
+     * Konwertuje graf z pliku CSRRG lub tekstowego pliku z macierzą sąsiedztwa do formatu binarnego
+     */
+    public static void convert(String inputPath, String outputPath) throws IOException {
+        if (inputPath.toLowerCase().endsWith(".csrrg")) {
+            Pair<Graph, CsrrgDataHolder> loaded = GraphLoader.loadGraphFromCsrrgText(inputPath);
+            write(outputPath, loaded.getFirst(), loaded.getSecond());
+        } else {
+            write(outputPath, GraphLoader.loadGraphFromAdjacencyMatrixText(inputPath).getFirst(), null);
+        }
+    }
+    
+    /**
+     * Sprawdza sumę kontrolną danych pliku
+     */
+    public void verifyChecksum() throws IOException {
+        CRC32 crc = new CRC32();
+        for (MappedIntArray array : new MappedIntArray[] {rowPointers, adjacencyList, secondaryData, secondaryRowPtr}) {
+            for (int s = 0; s < array.getSegmentCount(); s++) {
+                crc.update(array.getSegmentBytes(s));
+            }
+        }
+        if (crc.getValue() != checksum) {
+            throw new IOException("Binary graph checksum mismatch");
+        }
+    }
+    
+    /**
+     * Kopiuje dane do tablic na stercie i tworzy Graph oraz dane CSRRG (null, jeśli plik ich nie zawiera)
+     */
+    public Pair<Graph, CsrrgDataHolder> toGraph() throws IOException {
+        Graph graph = compressed ? decompress() : new Graph(vertexCount, edgeCount, rowPointers.toArray(),
+                                                            adjacencyList.toArray());
+        int[] graphRowPtr = graph.getRowPointers();
+        int[] graphNeighbors = graph.getAdjacencyList();
+        
+        CsrrgDataHolder csrrgData = null;
+        if (hasCsrrgData) {
+            csrrgData = new CsrrgDataHolder(maxSecondaryValue, secondaryData.toArray(), secondaryRowPtr.toArray(),
+                                            graphNeighbors, graphRowPtr);
+        }
+        return new Pair<>(graph, csrrgData);
+    }
+    
+    /**
+     * Tworzy graf czytający tablice CSR bezpośrednio ze zmapowanego pliku, bez kopiowania na stertę
+     * Tylko niewielkie tablice pomocnicze CSRRG są kopiowane; tablice grafu w CsrrgDataHolder są wtedy null
+     */
+    public Pair<Graph, CsrrgDataHolder> toMappedGraph() throws IOException {
+        if (compressed) {
+            return toGraph();
+        }
+        Graph graph = new Graph(vertexCount, edgeCount, new MappedCsrStorage(rowPointers, adjacencyList));
+        
+        CsrrgDataHolder csrrgData = null;
+        if (hasCsrrgData) {
+            csrrgData = new CsrrgDataHolder(maxSecondaryValue, secondaryData.toArray(), secondaryRowPtr.toArray(),
+                                            null, null);
+        }
+        return new Pair<>(graph, csrrgData);
+    }
+    
+    /**
+     * Dekoduje skompresowaną listę sąsiedztwa do grafu CSR na stercie
+     */
+    private Graph decompress() throws IOException {
+        byte[] data = new byte[compressedLength];
+        int position = 0;
+        for (int s = 0; s < adjacencyList.getSegmentCount() && position < data.length; s++) {
+            ByteBuffer bytes = adjacencyList.getSegmentBytes(s);
+            int count = Math.min(bytes.remaining(), data.length - position);
+            bytes.get(data, position, count);
+            position += count;
+        }
+        
+        try {
+            return CompressedGraph.fromEncoded(vertexCount, edgeCount, rowPointers.toArray(), data).toGraph();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid compressed adjacency: " + e.getMessage(), e);
+        }
+    }
+    
+    // Gettery
+    public int getVertexCount() {
+        return vertexCount;
+    }
+    
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    /**
+     * Czy lista sąsiedztwa jest zapisana w postaci skompresowanej (wtedy getAdjacencyList zwraca zakodowane słowa)
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+    
+    public boolean hasCsrrgData() {
+        return hasCsrrgData;
+    }
+    
+    public int getMaxSecondaryValue() {
+        return maxSecondaryValue;
+    }
+    
+    /**
+     * Tablice zmapowane bezpośrednio z pliku (segmenty dostępne jako IntBuffer)
+     */
+    public MappedIntArray getRowPointers() {
+        return rowPointers;
+    }
+    
+    public MappedIntArray getAdjacencyList() {
+        return adjacencyList;
+    }
+    
+    public MappedIntArray getSecondaryData() {
+        return secondaryData;
+    }
+    
+    public MappedIntArray getSecondaryRowPtr() {
+        return secondaryRowPtr;
+    }
+}
\ No newline at end of file
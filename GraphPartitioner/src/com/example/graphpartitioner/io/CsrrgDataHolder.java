@@ -1,7 +1,12 @@
 package com.example.graphpartitioner.io;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * Pomocnicza klasa do przechowywania danych z pliku CSRRG
+ * Dane pomocnicze z pliku tekstowego są parsowane dopiero przy pierwszym odczycie, a najpóźniej
+ * przed nadpisaniem pliku (patrz CsrrgSections.detach)
  */
 public class CsrrgDataHolder {
     private final int maxSecondaryValue;
@@ -9,6 +14,7 @@ public class CsrrgDataHolder {
     private final int[] secondaryRowPtr;
     private final int[] graphNeighbors;
     private final int[] graphRowPtr;
+    private final CsrrgSections sections;   // Źródło danych pomocniczych parsowanych na żądanie (lub null)
     
     public CsrrgDataHolder(int maxSecondaryValue, int[] secondaryData, 
                           int[] secondaryRowPtr, int[] graphNeighbors, int[] graphRowPtr) {
@@ -17,6 +23,19 @@ public class CsrrgDataHolder {
         this.secondaryRowPtr = secondaryRowPtr;
         this.graphNeighbors = graphNeighbors;
         this.graphRowPtr = graphRowPtr;
+        this.sections = null;
+    }
+    
+    /**
+     * Dane pomocnicze (linie 2-3) zostaną odczytane z pliku dopiero przy pierwszym użyciu
+     */
+    CsrrgDataHolder(int maxSecondaryValue, CsrrgSections sections, int[] graphNeighbors, int[] graphRowPtr) {
+        this.maxSecondaryValue = maxSecondaryValue;
+        this.secondaryData = null;
+        this.secondaryRowPtr = null;
+        this.graphNeighbors = graphNeighbors;
+        this.graphRowPtr = graphRowPtr;
+        this.sections = sections;
     }
     
     // Gettery
@@ -25,11 +44,25 @@ public class CsrrgDataHolder {
     }
     
     public int[] getSecondaryData() {
-        return secondaryData;
+        if (sections == null) {
+            return secondaryData;
+        }
+        try {
+            return sections.getSecondaryData();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     public int[] getSecondaryRowPtr() {
-        return secondaryRowPtr;
+        if (sections == null) {
+            return secondaryRowPtr;
+        }
+        try {
+            return sections.getSecondaryRowPtr();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     public int[] getGraphNeighbors() {
@@ -0,0 +1,253 @@
+package com.example.graphpartitioner.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Indeks linii pliku CSRRG: początek i koniec (bez znaków nowej linii) każdej linii.
+ * Indeks powstaje przy zapisie pliku (plik obok z rozszerzeniem SIDECAR_SUFFIX)
+ * lub przez jedno przejście po bajtach pliku (czytanych blokami, bez mapowania), bez parsowania liczb.
+ *
+ * Układ pliku indeksu (little-endian): magic, wersja, liczba linii, rozmiar i czas modyfikacji
+ * pliku CSRRG, po nich pary (początek, koniec) dla kolejnych linii jako liczby long.
+ */
+final class CsrrgIndex {
+    
+    static final String SIDECAR_SUFFIX = ".idx";
+    
+    /**
+     * Bajty "CSRI" odczytane jako liczba little-endian
+     */
+    private static final int MAGIC = 0x49525343;
+    
+    private static final int VERSION = 1;
+    
+    private static final int HEADER_SIZE = 28;
+    
+    /**
+     * Rozmiar bloku czytanego przy wyznaczaniu granic linii
+     */
+    private static final int SCAN_BLOCK_SIZE = 1 << 20;
+    
+    private final long[] lineStarts;
+    private final long[] lineEnds;
+    
+    CsrrgIndex(long[] lineStarts, long[] lineEnds) {
+        this.lineStarts = lineStarts;
+        this.lineEnds = lineEnds;
+    }
+    
+    /**
+     * Wyznacza granice co najwyżej maxLines pierwszych linii (zakończonych \n, \r lub \r\n)
+     * Plik jest czytany sekwencyjnie w blokach; pusta końcówka za ostatnim znakiem nowej linii nie jest liczona
+     */
+    static CsrrgIndex scan(FileChannel channel, long size, int maxLines) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long[] starts = new long[16];
+        long[] ends = new long[16];
+        int count = 0;
+        long lineStart = 0;
+        boolean afterCr = false;
+        long position = 0;
+        
+        while (position < size && count < maxLines) {
+            block.clear();
+            block.limit((int) Math.min(block.capacity(), size - position));
+            while (block.hasRemaining()) {
+                if (channel.read(block, position + block.position()) < 0) {
+                    throw new EOFException("Unexpected end of CSRRG file");
+                }
+            }
+            
+            for (int i = 0; i < block.limit() && count < maxLines; i++) {
+                byte b = block.get(i);
+                long at = position + i;
+                // \n tuż po \r należy do tego samego końca linii
+                if (afterCr) {
+                    afterCr = false;
+                    if (b == '\n') {
+                        lineStart = at + 1;
+                        continue;
+                    }
+                }
+                if (isLineBreak(b)) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    starts[count] = lineStart;
+                    ends[count] = at;
+                    count++;
+                    lineStart = at + 1;
+                    afterCr = b == '\r';
+                }
+            }
+            position += block.limit();
+        }
+        
+        if (count < maxLines && lineStart < size) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            starts[count] = lineStart;
+            ends[count] = size;
+            count++;
+        }
+        
+        return new CsrrgIndex(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+    
+    /**
+     * Wczytuje indeks zapisany obok pliku CSRRG
+     * Zwraca null, gdy indeksu brak lub nie pasuje do pliku (inny rozmiar, czas modyfikacji lub granice linii)
+     */
+    static CsrrgIndex load(String csrrgPath, FileChannel csrrg, long size, long modified) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(Paths.get(csrrgPath + SIDECAR_SUFFIX), StandardOpenOption.READ)) {
+            long sidecarSize = channel.size();
+            if (sidecarSize < HEADER_SIZE || sidecarSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            data = ByteBuffer.allocate((int) sidecarSize).order(ByteOrder.LITTLE_ENDIAN);
+            while (data.hasRemaining()) {
+                if (channel.read(data, data.position()) < 0) {
+                    return null;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        
+        int lineCount = data.getInt(8);
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || lineCount < 0 ||
+            data.getLong(12) != size || data.getLong(20) != modified ||
+            data.limit() != HEADER_SIZE + 16L * lineCount) {
+            return null;
+        }
+        
+        long[] starts = new long[lineCount];
+        long[] ends = new long[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            starts[i] = data.getLong(HEADER_SIZE + 16 * i);
+            ends[i] = data.getLong(HEADER_SIZE + 16 * i + 8);
+        }
+        
+        CsrrgIndex index = new CsrrgIndex(starts, ends);
+        return index.matches(csrrg, size) ? index : null;
+    }
+    
+    /**
+     * Sprawdza, czy granice linii wypadają na znakach nowej linii pliku
+     */
+    private boolean matches(FileChannel channel, long limit) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        long previousEnd = -1;
+        for (int i = 0; i < lineStarts.length; i++) {
+            long start = lineStarts[i];
+            long end = lineEnds[i];
+            if (start <= previousEnd || end < start || end > limit) {
+                return false;
+            }
+            if (start > 0 && !isLineBreak(readByte(channel, one, start - 1))) {
+                return false;
+            }
+            if (end < limit && !isLineBreak(readByte(channel, one, end))) {
+                return false;
+            }
+            previousEnd = end;
+        }
+        return true;
+    }
+    
+    private static byte readByte(FileChannel channel, ByteBuffer one, long position) throws IOException {
+        one.clear();
+        if (channel.read(one, position) < 1) {
+            throw new EOFException("Unexpected end of CSRRG file");
+        }
+        return one.get(0);
+    }
+    
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+    
+    /**
+     * Zapisuje indeks obok pliku CSRRG; plik CSRRG musi być już zamknięty
+     */
+    void save(String csrrgPath) throws IOException {
+        Path path = Paths.get(csrrgPath);
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + 16 * lineStarts.length).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC);
+        data.putInt(VERSION);
+        data.putInt(lineStarts.length);
+        data.putLong(Files.size(path));
+        data.putLong(Files.getLastModifiedTime(path).toMillis());
+        for (int i = 0; i < lineStarts.length; i++) {
+            data.putLong(lineStarts[i]);
+            data.putLong(lineEnds[i]);
+        }
+        data.flip();
+        
+        try (FileChannel channel = FileChannel.open(Paths.get(csrrgPath + SIDECAR_SUFFIX), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+    
+    int getLineCount() {
+        return lineStarts.length;
+    }
+    
+    long getLineStart(int line) {
+        return lineStarts[line];
+    }
+    
+    long getLineEnd(int line) {
+        return lineEnds[line];
+    }
+    
+    /**
+     * Zapamiętuje granice linii w trakcie zapisu pliku przez AsciiWriter
+     */
+    static final class Recorder {
+        private final AsciiWriter writer;
+        private final long[] starts;
+        private final long[] ends;
+        private int line;
+        
+        Recorder(AsciiWriter writer, int lineCount) {
+            this.writer = writer;
+            this.starts = new long[lineCount];
+            this.ends = new long[lineCount];
+        }
+        
+        /**
+         * Kończy bieżącą linię (zamiast AsciiWriter.newLine) i zapisuje jej granice
+         */
+        void endLine() throws IOException {
+            ends[line] = writer.getFilePosition();
+            writer.newLine();
+            line++;
+            if (line < starts.length) {
+                starts[line] = writer.getFilePosition();
+            }
+        }
+        
+        CsrrgIndex toIndex() {
+            return new CsrrgIndex(Arrays.copyOf(starts, line), Arrays.copyOf(ends, line));
+        }
+    }
+}
\ No newline at end of file
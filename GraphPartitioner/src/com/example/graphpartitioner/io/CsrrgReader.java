@@ -0,0 +1,194 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.utils.Pair;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parser linii plików CSRRG działający na bajtach wczytanych do bufora na stercie (FileBytes).
+ * Liczby rozdzielone średnikami są odczytywane bajt po bajcie do tablic int[]
+ * o rozmiarze wyznaczonym z liczby separatorów - bez obiektów String i Integer.
+ * Długie linie (lista sąsiedztwa i wskaźniki wierszy) są dzielone na fragmenty parsowane równolegle.
+ */
+class CsrrgReader {
+    
+    /**
+     * Zwracane przez parseToken dla pustej lub nieprawidłowej wartości
+     */
+    static final long INVALID = Long.MIN_VALUE;
+    
+    /**
+     * Linie dłuższe niż tyle bajtów są parsowane równolegle
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    
+    /**
+     * Liczba fragmentów linii na wątek (wyrównuje nierówne tempo wątków)
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    /**
+     * Wczytuje graf główny (linie 4-5) i nagłówek (linia 1) z pliku CSRRG
+     * Dane pomocnicze (linie 2-3) i podgrafy części są parsowane dopiero na żądanie - patrz CsrrgSections
+     */
+    static Pair<Graph, CsrrgDataHolder> read(String filePath) throws IOException {
+        CsrrgSections sections = CsrrgSections.open(filePath);
+        int maxSecondaryValue = sections.getMaxSecondaryValue();
+        Graph graph = sections.readGraph();
+        CsrrgDataHolder csrrgData = new CsrrgDataHolder(maxSecondaryValue, sections,
+                                                        graph.getAdjacencyList(), graph.getRowPointers());
+        return new Pair<>(graph, csrrgData);
+    }
+    
+    /**
+     * Parsuje liczby rozdzielone średnikami z przedziału bajtów [start, end)
+     * Puste i nieprawidłowe wartości są pomijane
+     */
+    static int[] parseIntList(ByteBuffer buffer, int start, int end) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (threads > 1 && end - start >= PARALLEL_THRESHOLD) {
+            return parseIntListParallel(buffer, start, end, threads * CHUNKS_PER_THREAD);
+        }
+        return parseChunk(buffer, start, end);
+    }
+    
+    /**
+     * Dzieli długą linię na fragmenty na granicach średników, parsuje je równolegle
+     * i skleja wyniki według sum prefiksowych liczby wartości w fragmentach
+     */
+    private static int[] parseIntListParallel(ByteBuffer buffer, int start, int end, int chunkCount)
+            throws IOException {
+        // Granica fragmentu to pozycja tuż za średnikiem, więc żadna liczba nie jest rozcięta
+        int[] bounds = new int[chunkCount + 1];
+        bounds[0] = start;
+        int chunks = 0;
+        long step = (long) (end - start) / chunkCount;
+        for (int i = 1; i < chunkCount; i++) {
+            int position = (int) Math.max(start + step * i, bounds[chunks]);
+            while (position < end && buffer.get(position) != ';') {
+                position++;
+            }
+            if (position >= end) {
+                break;
+            }
+            bounds[++chunks] = position + 1;
+        }
+        bounds[++chunks] = end;
+        
+        List<Callable<int[]>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int chunkStart = bounds[i];
+            int chunkEnd = bounds[i + 1];
+            tasks.add(() -> parseChunk(buffer.duplicate(), chunkStart, chunkEnd));
+        }
+        
+        int[][] parsed = new int[chunks][];
+        try {
+            List<Future<int[]>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+            for (int i = 0; i < chunks; i++) {
+                parsed[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSRRG parsing interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("CSRRG parsing failed", cause);
+        }
+        
+        // Suma prefiksowa liczby wartości wyznacza miejsce każdego fragmentu w wyniku
+        int[] offsets = new int[chunks + 1];
+        for (int i = 0; i < chunks; i++) {
+            offsets[i + 1] = offsets[i] + parsed[i].length;
+        }
+        
+        int[] values = new int[offsets[chunks]];
+        for (int i = 0; i < chunks; i++) {
+            System.arraycopy(parsed[i], 0, values, offsets[i], parsed[i].length);
+        }
+        return values;
+    }
+    
+    /**
+     * Sekwencyjnie parsuje fragment linii do tablicy o rozmiarze liczby separatorów + 1
+     */
+    private static int[] parseChunk(ByteBuffer buffer, int start, int end) {
+        // Górne oszacowanie liczby wartości: liczba separatorów + 1
+        int capacity = 1;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ';') {
+                capacity++;
+            }
+        }
+        
+        int[] values = new int[capacity];
+        int count = 0;
+        int tokenStart = start;
+        
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ';') {
+                long value = parseToken(buffer, tokenStart, i);
+                if (value != INVALID) {
+                    values[count++] = (int) value;
+                }
+                tokenStart = i + 1;
+            }
+        }
+        
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+    
+    /**
+     * Parsuje jedną liczbę całkowitą z przedziału bajtów [start, end), pomijając białe znaki na brzegach
+     * Zwraca INVALID dla wartości pustej, niepoprawnej lub spoza zakresu int
+     */
+    static long parseToken(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+        
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) {
+                return INVALID;
+            }
+        }
+        
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return INVALID;
+            }
+        }
+        
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? INVALID : value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Leniwy dostęp do sekcji pliku CSRRG.
+ * Każda sekcja jest parsowana dopiero przy pierwszym użyciu: dane pomocnicze (linie 2-3),
+ * graf główny (linie 4-5) i podgrafy części (para linii 6+ na część).
+ * Obiekt nie trzyma otwartego ani zmapowanego pliku - każdy odczyt otwiera plik na nowo, czyta tylko
+ * bajty potrzebnej linii i sprawdza, czy rozmiar i czas modyfikacji są takie jak przy otwarciu.
+ * Indeks linii pochodzi z pliku zapisanego obok przez GraphSaver, a gdy go brak - z jednego
+ * przejścia po bajtach pliku wykonywanego dopiero przy pierwszym dostępie do podgrafów części.
+ * Przed nadpisaniem pliku zapisujący wywołuje detach: dane pomocnicze są wtedy kopiowane na stertę,
+ * a dalsze odczyty sekcji z pliku kończą się błędem.
+ */
+public final class CsrrgSections {
+    
+    /**
+     * Liczba linii grafu głównego i danych pomocniczych przed sekcjami części
+     */
+    private static final int MAIN_LINES = 5;
+    
+    /**
+     * Otwarte sekcje, które trzeba odłączyć przed nadpisaniem ich pliku (klucze słabe)
+     */
+    private static final Map<CsrrgSections, Boolean> OPEN = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private final String filePath;
+    private final Path path;
+    private final long size;
+    private final long modified;
+    private final CsrrgIndex mainLines;
+    
+    private volatile CsrrgIndex index;
+    private volatile int[] secondaryData;
+    private volatile int[] secondaryRowPtr;
+    private volatile boolean detached;
+    
+    private CsrrgSections(String filePath, long size, long modified, CsrrgIndex mainLines) {
+        this.filePath = filePath;
+        this.path = Paths.get(filePath).toAbsolutePath().normalize();
+        this.size = size;
+        this.modified = modified;
+        this.mainLines = mainLines;
+    }
+    
+    /**
+     * Otwiera plik CSRRG; wyznaczane są tylko granice pięciu pierwszych linii
+     */
+    public static CsrrgSections open(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            CsrrgSections sections = new CsrrgSections(filePath, size, modified,
+                                                       CsrrgIndex.scan(channel, size, MAIN_LINES));
+            OPEN.put(sections, Boolean.TRUE);
+            return sections;
+        }
+    }
+    
+    /**
+     * Wywoływane przed nadpisaniem pliku: kopiuje dane pomocnicze (linie 2-3) wszystkich sekcji
+     * otwartych dla tej ścieżki, dzięki czemu wczytany plik można nadpisać wynikiem podziału
+     */
+    static void detach(String filePath) {
+        Path target = Paths.get(filePath).toAbsolutePath().normalize();
+        List<CsrrgSections> affected = new ArrayList<>();
+        synchronized (OPEN) {
+            for (CsrrgSections sections : OPEN.keySet()) {
+                if (sections.path.equals(target)) {
+                    affected.add(sections);
+                }
+            }
+        }
+        for (CsrrgSections sections : affected) {
+            sections.copySecondary();
+            OPEN.remove(sections);
+        }
+    }
+    
+    /**
+     * Parsuje linie 2-3, jeśli jeszcze nie były potrzebne, i blokuje dalsze odczyty z pliku
+     */
+    private synchronized void copySecondary() {
+        try {
+            getSecondaryData();
+            getSecondaryRowPtr();
+        } catch (IOException e) {
+            // Plik zmienił się już wcześniej - dane pomocnicze pozostaną niedostępne
+        }
+        detached = true;
+    }
+    
+    /**
+     * Linia 1: największa wartość danych pomocniczych (w plikach wynikowych - liczba części)
+     */
+    public int getMaxSecondaryValue() throws IOException {
+        ByteBuffer bytes = readRange(mainStart(0), mainEnd(0));
+        long value = CsrrgReader.parseToken(bytes, 0, bytes.limit());
+        if (value == CsrrgReader.INVALID) {
+            throw new IOException("Invalid CSRRG header value");
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Linia 2: dane pomocnicze (w plikach wynikowych - wierzchołki pogrupowane według części)
+     */
+    public int[] getSecondaryData() throws IOException {
+        int[] values = secondaryData;
+        if (values == null) {
+            synchronized (this) {
+                values = secondaryData;
+                if (values == null) {
+                    values = parseRange(mainStart(1), mainEnd(1));
+                    secondaryData = values;
+                }
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Linia 3: wskaźniki wierszy danych pomocniczych (w plikach wynikowych - początki części)
+     */
+    public int[] getSecondaryRowPtr() throws IOException {
+        int[] values = secondaryRowPtr;
+        if (values == null) {
+            synchronized (this) {
+                values = secondaryRowPtr;
+                if (values == null) {
+                    values = parseRange(mainStart(2), mainEnd(2));
+                    secondaryRowPtr = values;
+                }
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Linie 4-5: graf główny; każde wywołanie parsuje linie od nowa
+     */
+    public Graph readGraph() throws IOException {
+        int[] graphNeighbors = parseRange(mainStart(3), mainEnd(3));
+        int[] graphRowPtr = parseRange(mainStart(4), mainEnd(4));
+        if (graphRowPtr.length < 2) {
+            throw new IOException("Invalid graph row pointers");
+        }
+        return new Graph(graphRowPtr.length - 1, graphNeighbors.length / 2, graphRowPtr, graphNeighbors);
+    }
+    
+    /**
+     * Liczba zapisanych podgrafów części (par linii za grafem głównym)
+     */
+    public int getPartCount() throws IOException {
+        return Math.max(0, (getIndex().getLineCount() - MAIN_LINES) / 2);
+    }
+    
+    /**
+     * Parsuje tylko sekcję podgrafu podanej części (wskaźniki wierszy i listę sąsiedztwa)
+     * Numeracja wierzchołków jest lokalna, w kolejności części z getPartVertices
+     */
+    public Graph readPartSubgraph(int part) throws IOException {
+        if (part < 0 || part >= getPartCount()) {
+            throw new IOException("No subgraph section for part " + part);
+        }
+        CsrrgIndex lines = getIndex();
+        int rowLine = MAIN_LINES + 2 * part;
+        int[] rowPointers = parseRange(lines.getLineStart(rowLine), lines.getLineEnd(rowLine));
+        int[] adjacencyList = parseRange(lines.getLineStart(rowLine + 1), lines.getLineEnd(rowLine + 1));
+        if (rowPointers.length < 1) {
+            throw new IOException("Invalid row pointers for part " + part);
+        }
+        return new Graph(rowPointers.length - 1, adjacencyList.length / 2, rowPointers, adjacencyList);
+    }
+    
+    /**
+     * Wierzchołki grafu głównego należące do części, na podstawie linii 2-3 pliku wynikowego
+     */
+    public int[] getPartVertices(int part) throws IOException {
+        int[] data = getSecondaryData();
+        int[] starts = getSecondaryRowPtr();
+        if (part < 0 || part + 1 >= starts.length || starts[part] < 0 ||
+            starts[part] > starts[part + 1] || starts[part + 1] > data.length) {
+            throw new IOException("No vertex list for part " + part);
+        }
+        int[] vertices = new int[starts[part + 1] - starts[part]];
+        System.arraycopy(data, starts[part], vertices, 0, vertices.length);
+        return vertices;
+    }
+    
+    /**
+     * Brakujące linie na końcu pliku są traktowane jako puste, jak w CsrrgIndex.scan
+     */
+    private long mainStart(int line) {
+        return line < mainLines.getLineCount() ? mainLines.getLineStart(line) : size;
+    }
+    
+    private long mainEnd(int line) {
+        return line < mainLines.getLineCount() ? mainLines.getLineEnd(line) : size;
+    }
+    
+    private int[] parseRange(long start, long end) throws IOException {
+        ByteBuffer bytes = readRange(start, end);
+        return CsrrgReader.parseIntList(bytes, 0, bytes.limit());
+    }
+    
+    /**
+     * Czyta bajty [start, end) do bufora na stercie; plik jest zamykany przed powrotem
+     */
+    private ByteBuffer readRange(long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("CSRRG line too long: " + (end - start) + " bytes");
+        }
+        try (FileChannel channel = openUnchanged()) {
+            return FileBytes.read(channel, start, end - start);
+        }
+    }
+    
+    /**
+     * Otwiera plik i sprawdza, że od otwarcia sekcji nie zmienił się jego rozmiar ani czas modyfikacji
+     * (np. po nadpisaniu wynikiem podziału) - granice linii byłyby wtedy nieaktualne
+     */
+    private FileChannel openUnchanged() throws IOException {
+        if (detached) {
+            throw new IOException("CSRRG file overwritten since it was opened: " + filePath);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() != size || Files.getLastModifiedTime(path).toMillis() != modified) {
+                throw new IOException("CSRRG file changed since it was opened: " + filePath);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+    
+    /**
+     * Indeks wszystkich linii: z pliku obok, a gdy go brak lub jest nieaktualny - z przejścia po pliku
+     */
+    private CsrrgIndex getIndex() throws IOException {
+        CsrrgIndex lines = index;
+        if (lines == null) {
+            synchronized (this) {
+                lines = index;
+                if (lines == null) {
+                    try (FileChannel channel = openUnchanged()) {
+                        lines = CsrrgIndex.load(filePath, channel, size, modified);
+                        if (lines == null) {
+                            lines = CsrrgIndex.scan(channel, size, Integer.MAX_VALUE);
+                        }
+                    }
+                    index = lines;
+                }
+            }
+        }
+        return lines;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.graphpartitioner.io;
+
+import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.GraphBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parser listy krawędzi: każda linia to para "u v" (separatorem mogą być białe znaki lub przecinek).
+ * Puste linie oraz komentarze zaczynające się od # lub % są pomijane.
+ * Plik jest wczytywany do bufora (FileBytes) i dzielony na fragmenty na granicach linii, parsowane
+ * równolegle prosto do GraphBuilder - graf jest symetryzowany, bez pętli i duplikatów.
+ */
+class EdgeListReader {
+    
+    /**
+     * Pliki mniejsze niż tyle bajtów są parsowane w jednym wątku
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    
+    /**
+     * Liczba fragmentów pliku na wątek (wyrównuje nierówne tempo wątków)
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    static Graph read(String filePath) throws IOException {
+        ByteBuffer buffer = FileBytes.read(filePath, "Edge list");
+        int size = buffer.limit();
+        GraphBuilder builder = new GraphBuilder().symmetrize(true).removeSelfLoops(true).deduplicate(true);
+        
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (threads > 1 && size >= PARALLEL_THRESHOLD) {
+            parseParallel(buffer, builder, threads * CHUNKS_PER_THREAD);
+        } else {
+            parseChunk(buffer, 0, size, builder);
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Dzieli plik na fragmenty kończące się tuż za znakiem nowej linii i parsuje je równolegle
+     */
+    private static void parseParallel(ByteBuffer buffer, GraphBuilder builder, int chunkCount) throws IOException {
+        int end = buffer.limit();
+        int[] bounds = new int[chunkCount + 1];
+        int chunks = 0;
+        long step = (long) end / chunkCount;
+        for (int i = 1; i < chunkCount; i++) {
+            int position = (int) Math.max(step * i, bounds[chunks]);
+            while (position < end && buffer.get(position) != '\n') {
+                position++;
+            }
+            if (position >= end) {
+                break;
+            }
+            bounds[++chunks] = position + 1;
+        }
+        bounds[++chunks] = end;
+        
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int chunkStart = bounds[i];
+            int chunkEnd = bounds[i + 1];
+            tasks.add(() -> {
+                parseChunk(buffer.duplicate(), chunkStart, chunkEnd, builder);
+                return null;
+            });
+        }
+        
+        try {
+            for (Future<Void> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Edge list parsing interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Edge list parsing failed", cause);
+        }
+    }
+    
+    /**
+     * Parsuje linie z przedziału bajtów [start, end) i dodaje krawędzie do budowniczego
+     */
+    private static void parseChunk(ByteBuffer buffer, int start, int end, GraphBuilder builder) throws IOException {
+        int position = start;
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            
+            // Pierwszy znak linii różny od białego
+            int first = position;
+            while (first < lineEnd && isSeparator(buffer.get(first))) {
+                first++;
+            }
+            if (first < lineEnd && buffer.get(first) != '#' && buffer.get(first) != '%') {
+                parseEdge(buffer, first, lineEnd, builder);
+            }
+            
+            position = lineEnd + 1;
+        }
+    }
+    
+    /**
+     * Parsuje dwie pierwsze liczby linii jako krawędź; pozostałe kolumny (np. wagi) są pomijane
+     */
+    private static void parseEdge(ByteBuffer buffer, int start, int end, GraphBuilder builder) throws IOException {
+        int position = start;
+        int u = 0;
+        for (int k = 0; k < 2; k++) {
+            while (position < end && isSeparator(buffer.get(position))) {
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < end && !isSeparator(buffer.get(position))) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                    throw new IOException("Invalid edge at byte offset " + start);
+                }
+                value = value * 10 + digit;
+                digits++;
+                position++;
+            }
+            if (digits == 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Invalid edge at byte offset " + start);
+            }
+            if (k == 0) {
+                u = (int) value;
+            } else {
+                builder.addEdge(u, (int) value);
+            }
+        }
+    }
+    
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == '\f' || b == '\u000B';
+    }
+}
\ No newline at end of file
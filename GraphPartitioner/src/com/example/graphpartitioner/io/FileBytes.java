@@ -0,0 +1,49 @@
+package com.example.graphpartitioner.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Wczytywanie pliku lub jego fragmentu do bufora na stercie przez FileChannel.read.
+ * Parsery odczytują bajty z bufora tak jak z pliku zmapowanego, ale plik jest zamknięty przed powrotem -
+ * mapowanie pozostaje aktywne do odśmiecenia bufora i na Windows blokuje nadpisanie wczytanego pliku.
+ */
+final class FileBytes {
+    
+    private FileBytes() {
+    }
+    
+    /**
+     * Wczytuje cały plik; description trafia do komunikatu, gdy plik nie mieści się w buforze
+     */
+    static ByteBuffer read(String filePath, String description) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(description + " file too large to read: " + size + " bytes");
+            }
+            return read(channel, 0, size);
+        }
+    }
+    
+    /**
+     * Wczytuje bajty [position, position + length) otwartego pliku
+     */
+    static ByteBuffer read(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Cannot read " + length + " bytes into one buffer");
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, position + bytes.position()) < 0) {
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+}
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.example.graphpartitioner.io;
 
 import com.example.graphpartitioner.model.Graph;
 import com.example.graphpartitioner.model.Partition;
+import com.example.graphpartitioner.utils.IntList;
 import com.example.graphpartitioner.utils.Pair;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -12,39 +14,17 @@ import java.util.*;
  */
 public class GraphLoader {
     
-    /**
-     * Pomocnicza metoda do parsowania listy liczb całkowitych z linii tekstu
-     */
-    private static int[] parseIntegerList(String line, String delimiter) {
-        if (line == null || line.trim().isEmpty()) {
-            return new int[0];
-        }
-        
-        String[] parts = line.split(delimiter);
-        List<Integer> numbers = new ArrayList<>();
-        
-        for (String part : parts) {
-            String trimmed = part.trim();
-            if (!trimmed.isEmpty()) {
-                try {
-                    numbers.add(Integer.parseInt(trimmed));
-                } catch (NumberFormatException e) {
-                    // Ignoruj nieprawidłowe liczby
-                }
-            }
-        }
-        
-        return numbers.stream().mapToInt(Integer::intValue).toArray();
-    }
-    
     /**
      * Format 1: Tekstowy CSR (z macierzy sąsiedztwa)
      * Pierwsze N linii to macierz sąsiedztwa, następnie opcjonalne przypisania
+     * Wiersze macierzy są parsowane strumieniowo prosto do tablic CSR - w pamięci
+     * jest tylko bieżąca linia, więc zużycie pamięci wynosi O(V+E) zamiast O(V^2)
      */
     public static Pair<Graph, Partition> loadGraphFromAdjacencyMatrixText(String filePath) throws IOException {
-        List<String> lines = new ArrayList<>();
-        List<String> assignmentLines = new ArrayList<>();
-        boolean inAssignmentSection = false;
+        IntList rowStarts = new IntList();
+        IntList columns = new IntList();
+        int[] assignments = null;
+        int maxPartId = -1;
         
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
@@ -54,142 +34,147 @@ public class GraphLoader {
                     continue; // Pomijaj puste linie i komentarze
                 }
                 
-                // Sprawdź czy zaczynamy sekcję przypisań
-                if (!inAssignmentSection && line.contains(" - ")) {
-                    inAssignmentSection = true;
+                // Sprawdź czy zaczynamy sekcję przypisań - macierz jest wtedy kompletna
+                if (assignments == null && line.contains(" - ")) {
+                    assignments = new int[rowStarts.size()];
+                    Arrays.fill(assignments, -1);
                 }
                 
-                if (inAssignmentSection) {
-                    assignmentLines.add(line);
+                if (assignments != null) {
+                    maxPartId = Math.max(maxPartId, parseAssignmentLine(line, assignments));
                 } else {
-                    lines.add(line);
-                }
-            }
-        }
-        
-        // Parsuj macierz sąsiedztwa
-        int n = lines.size();
-        boolean[][] adjacencyMatrix = new boolean[n][n];
-        
-        for (int i = 0; i < n; i++) {
-            String line = lines.get(i);
-            // Usuń nawiasy kwadratowe jeśli są
-            line = line.replaceAll("[\\[\\]]", "");
-            
-            String[] values = line.split("[\\s.]+");
-            for (int j = 0; j < Math.min(values.length, n); j++) {
-                String val = values[j].trim();
-                if (!val.isEmpty()) {
-                    adjacencyMatrix[i][j] = "1".equals(val) || "1.0".equals(val);
+                    rowStarts.add(columns.size());
+                    parseMatrixRow(line, columns);
                 }
             }
         }
         
-        // Konwertuj macierz sąsiedztwa na format CSR
-        List<Integer> adjacencyList = new ArrayList<>();
-        int[] rowPointers = new int[n + 1];
+        // Liczba wierszy jest znana dopiero po wczytaniu macierzy,
+        // więc kolumny spoza niej są odrzucane dopiero teraz
+        int n = rowStarts.size();
+        rowStarts.add(columns.size());
+        int[] rowPointers = rowStarts.toArray();
+        int[] adjacencyList = columns.toArray();
         int edgeCount = 0;
+        int write = 0;
         
         for (int i = 0; i < n; i++) {
-            rowPointers[i] = adjacencyList.size();
-            for (int j = 0; j < n; j++) {
-                if (adjacencyMatrix[i][j]) {
-                    adjacencyList.add(j);
+            int start = rowPointers[i];
+            int end = rowPointers[i + 1];
+            rowPointers[i] = write;
+            
+            for (int e = start; e < end; e++) {
+                int j = adjacencyList[e];
+                if (j < n) {
+                    adjacencyList[write++] = j;
                     if (i < j) { // Liczymy każdą krawędź tylko raz dla grafu nieskierowanego
                         edgeCount++;
                     }
                 }
             }
         }
-        rowPointers[n] = adjacencyList.size();
+        rowPointers[n] = write;
+        if (write < adjacencyList.length) {
+            adjacencyList = Arrays.copyOf(adjacencyList, write);
+        }
         
         // Stwórz graf
-        Graph graph = new Graph(n, edgeCount, rowPointers, 
-                               adjacencyList.stream().mapToInt(Integer::intValue).toArray());
+        Graph graph = new Graph(n, edgeCount, rowPointers, adjacencyList);
         
-        // Parsuj przypisania jeśli istnieją
+        // Utwórz podział jeśli plik zawierał przypisania
         Partition partition = null;
-        if (!assignmentLines.isEmpty()) {
-            int[] assignments = new int[n];
-            Arrays.fill(assignments, -1);
-            int maxPartId = -1;
-            
-            for (String line : assignmentLines) {
-                String[] parts = line.split(" - ");
-                if (parts.length == 2) {
-                    try {
-                        int vertex = Integer.parseInt(parts[0].trim());
-                        int partId = Integer.parseInt(parts[1].trim());
-                        if (vertex >= 0 && vertex < n) {
-                            assignments[vertex] = partId;
-                            maxPartId = Math.max(maxPartId, partId);
-                        }
-                    } catch (NumberFormatException e) {
-                        // Ignoruj nieprawidłowe linie
-                    }
+        if (assignments != null && maxPartId >= 0) {
+            int partCount = maxPartId + 1;
+            int[] partSizes = new int[partCount];
+            for (int assignment : assignments) {
+                if (assignment >= 0) {
+                    partSizes[assignment]++;
                 }
             }
             
-            if (maxPartId >= 0) {
-                int partCount = maxPartId + 1;
-                int[] partSizes = new int[partCount];
-                for (int assignment : assignments) {
-                    if (assignment >= 0) {
-                        partSizes[assignment]++;
+            partition = new Partition(assignments, partSizes, partCount, 0, 10);
+            // Oblicz przecięte krawędzie zostanie zrobione później
+        }
+        
+        return new Pair<>(graph, partition);
+    }
+    
+    /**
+     * Parsuje wiersz macierzy sąsiedztwa (np. "[0. 1. 0.]") bez tworzenia obiektów
+     * i dopisuje numery kolumn zawierających 1 do listy kolumn.
+     * Wartości rozdzielają białe znaki i kropki, a nawiasy kwadratowe są pomijane.
+     */
+    private static void parseMatrixRow(String line, IntList columns) {
+        int column = 0;
+        int tokenLength = 0;
+        boolean tokenIsOne = false;
+        boolean inSeparator = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '[' || c == ']') {
+                continue;
+            }
+            
+            if (c == '.' || c == ' ' || c == '\t' || c == '\f' || c == '\u000B' || c == '\r' || c == '\n') {
+                // Koniec wartości - ciąg separatorów rozdziela dokładnie dwie kolumny
+                if (!inSeparator) {
+                    if (tokenIsOne && tokenLength == 1) {
+                        columns.add(column);
                     }
+                    column++;
+                    tokenLength = 0;
+                    tokenIsOne = false;
+                    inSeparator = true;
                 }
-                
-                partition = new Partition(assignments, partSizes, partCount, 0, 10);
-                // Oblicz przecięte krawędzie zostanie zrobione później
+            } else {
+                tokenIsOne = tokenLength == 0 && c == '1';
+                tokenLength++;
+                inSeparator = false;
             }
         }
         
-        return new Pair<>(graph, partition);
+        if (tokenIsOne && tokenLength == 1) {
+            columns.add(column);
+        }
     }
     
     /**
-     * Format 2: CSRRG (tekstowy)
-     * Wczytuje tylko graf główny (linie 4-5)
+     * Parsuje linię przypisania "wierzchołek - część"
+     * Zwraca numer części lub -1, jeśli linia jest nieprawidłowa
      */
-    public static Pair<Graph, CsrrgDataHolder> loadGraphFromCsrrgText(String filePath) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            // Linia 1: max secondary value
-            String line1 = reader.readLine();
-            int maxSecondaryValue = Integer.parseInt(line1.trim());
-            
-            // Linia 2: secondary data
-            String line2 = reader.readLine();
-            int[] secondaryData = parseIntegerList(line2, ";");
-            
-            // Linia 3: secondary row pointers
-            String line3 = reader.readLine();
-            int[] secondaryRowPtr = parseIntegerList(line3, ";");
-            
-            // Linia 4: graph neighbors (lista sąsiedztwa)
-            String line4 = reader.readLine();
-            int[] graphNeighbors = parseIntegerList(line4, ";");
-            
-            // Linia 5: graph row pointers
-            String line5 = reader.readLine();
-            int[] graphRowPtr = parseIntegerList(line5, ";");
-            
-            // Walidacja danych
-            if (graphRowPtr.length < 2) {
-                throw new IOException("Invalid graph row pointers");
+    private static int parseAssignmentLine(String line, int[] assignments) {
+        String[] parts = line.split(" - ");
+        if (parts.length == 2) {
+            try {
+                int vertex = Integer.parseInt(parts[0].trim());
+                int partId = Integer.parseInt(parts[1].trim());
+                if (vertex >= 0 && vertex < assignments.length) {
+                    assignments[vertex] = partId;
+                    return partId;
+                }
+            } catch (NumberFormatException e) {
+                // Ignoruj nieprawidłowe linie
             }
-            
-            int vertexCount = graphRowPtr.length - 1;
-            int edgeCount = graphNeighbors.length / 2; // Dla grafu nieskierowanego
-            
-            // Stwórz graf
-            Graph graph = new Graph(vertexCount, edgeCount, graphRowPtr, graphNeighbors);
-            
-            // Stwórz holder dla danych CSRRG
-            CsrrgDataHolder csrrgData = new CsrrgDataHolder(maxSecondaryValue, secondaryData, 
-                                                            secondaryRowPtr, graphNeighbors, graphRowPtr);
-            
-            return new Pair<>(graph, csrrgData);
         }
+        return -1;
+    }
+    
+    /**
+     * Format 2: CSRRG (tekstowy)
+     * Wczytuje graf główny (linie 4-5) i nagłówek (linia 1); dane pomocnicze (linie 2-3) są parsowane
+     * przy pierwszym odczycie z CsrrgDataHolder
+     */
+    public static Pair<Graph, CsrrgDataHolder> loadGraphFromCsrrgText(String filePath) throws IOException {
+        // Linie są czytane do bufora na stercie i parsowane bez tworzenia obiektów String
+        return CsrrgReader.read(filePath);
+    }
+    
+    /**
+     * Otwiera plik CSRRG bez parsowania; sekcje (także podgrafy części z linii 6+) są wczytywane na żądanie
+     */
+    public static CsrrgSections openCsrrgSections(String filePath) throws IOException {
+        return CsrrgSections.open(filePath);
     }
     
     /**
@@ -197,73 +182,32 @@ public class GraphLoader {
      * Linie w formacie: Wierzchołek X -> Podgraf Y
      */
     public static Pair<Graph, Partition> loadSimpleAssignmentText(String filePath) throws IOException {
-        int maxVertexId = -1;
-        int maxPartId = -1;
-        Map<Integer, Integer> assignments = new HashMap<>();
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                
-                // Parsuj linię w formacie "Wierzchołek X -> Podgraf Y"
-                if (line.startsWith("Wierzchołek") && line.contains("->") && line.contains("Podgraf")) {
-                    String[] parts = line.split("->");
-                    if (parts.length == 2) {
-                        try {
-                            // Wyciągnij numer wierzchołka
-                            String vertexPart = parts[0].trim();
-                            int vertexStart = vertexPart.indexOf(' ') + 1;
-                            int vertexId = Integer.parseInt(vertexPart.substring(vertexStart).trim());
-                            
-                            // Wyciągnij numer podgrafu
-                            String partPart = parts[1].trim();
-                            int partStart = partPart.indexOf(' ') + 1;
-                            int partId = Integer.parseInt(partPart.substring(partStart).trim());
-                            
-                            assignments.put(vertexId, partId);
-                            maxVertexId = Math.max(maxVertexId, vertexId);
-                            maxPartId = Math.max(maxPartId, partId);
-                        } catch (Exception e) {
-                            // Ignoruj nieprawidłowe linie
-                        }
-                    }
-                }
-            }
-        }
+        // Linie są przeglądane bajt po bajcie w buforze na stercie; wierzchołki bez linii trafiają do części 0
+        int[] assignmentsArray = AssignmentOverlay.readText(filePath);
+        int vertexCount = assignmentsArray.length;
         
         // Stwórz graf bez krawędzi
-        int vertexCount = maxVertexId + 1;
         int[] rowPointers = new int[vertexCount + 1];
-        Arrays.fill(rowPointers, 0);
         int[] adjacencyList = new int[0];
         
         Graph graph = new Graph(vertexCount, 0, rowPointers, adjacencyList);
         
         // Stwórz podział
+        int maxPartId = -1;
+        for (int assignment : assignmentsArray) {
+            maxPartId = Math.max(maxPartId, assignment);
+        }
         int partCount = maxPartId + 1;
-        int[] assignmentsArray = new int[vertexCount];
-        Arrays.fill(assignmentsArray, 0); // Domyślnie część 0
         int[] partSizes = new int[partCount];
-        
-        for (Map.Entry<Integer, Integer> entry : assignments.entrySet()) {
-            assignmentsArray[entry.getKey()] = entry.getValue();
-            partSizes[entry.getValue()]++;
-        }
-        
-        // Uzupełnij rozmiary części dla wierzchołków bez przypisania
-        for (int i = 0; i < vertexCount; i++) {
-            if (!assignments.containsKey(i)) {
-                partSizes[0]++;
-            }
+        for (int assignment : assignmentsArray) {
+            partSizes[assignment]++;
         }
         
         Partition partition = new Partition(assignmentsArray, partSizes, partCount, 0, 10);
         
         return new Pair<>(graph, partition);
     }
-    
+      
       /**
      * Format 4: "Proste Przypisanie" Binarne
      * Plik zawiera sekwencję bitów, gdzie każdy bit reprezentuje przynależność wierzchołka:
@@ -272,23 +216,27 @@ public class GraphLoader {
      * Bity są pakowane w bajty, LSB first
      */
     public static Pair<Graph, Partition> loadSimpleAssignmentBinary(String filePath) throws IOException {
-        List<Integer> assignments = new ArrayList<>();
+        int[] assignmentsArray;
         
-        try (FileInputStream fis = new FileInputStream(filePath)) {
-            int byteValue;
-            while ((byteValue = fis.read()) != -1) {
-                // Przetwarzaj każdy bit w bajcie (od LSB do MSB)
-                for (int bitPos = 0; bitPos < 8; bitPos++) {
-                    // Wyciągnij bit na pozycji bitPos
-                    int bit = (byteValue >> bitPos) & 1;
-                    // bit = 0 oznacza podgraf 0, bit = 1 oznacza podgraf 1
-                    assignments.add(bit);
-                }
+        // Plik jest wczytywany do bufora i dekodowany bajt po bajcie bez opakowywania bitów w obiekty
+        ByteBuffer buffer = FileBytes.read(filePath, "Assignment");
+        int size = buffer.limit();
+        if (size > Integer.MAX_VALUE / 8) {
+            throw new IOException("Assignment file too large: " + size + " bytes");
+        }
+        
+        assignmentsArray = new int[size * 8];
+        for (int i = 0; i < size; i++) {
+            int byteValue = buffer.get(i);
+            // Przetwarzaj każdy bit w bajcie (od LSB do MSB)
+            for (int bitPos = 0; bitPos < 8; bitPos++) {
+                // bit = 0 oznacza podgraf 0, bit = 1 oznacza podgraf 1
+                assignmentsArray[i * 8 + bitPos] = (byteValue >> bitPos) & 1;
             }
         }
         
         // Określ liczbę wierzchołków
-        int vertexCount = assignments.size();
+        int vertexCount = assignmentsArray.length;
         
         // Ponieważ plik binarny zawiera tylko informację 0/1,
         // zakładamy że mamy maksymalnie 2 podgrafy (0 i 1)
@@ -296,24 +244,80 @@ public class GraphLoader {
         
         // Stwórz graf bez krawędzi
         int[] rowPointers = new int[vertexCount + 1];
-        Arrays.fill(rowPointers, 0);
         int[] adjacencyList = new int[0];
         
         Graph graph = new Graph(vertexCount, 0, rowPointers, adjacencyList);
         
         // Stwórz podział
-        int[] assignmentsArray = new int[vertexCount];
         int[] partSizes = new int[partCount];
-        
-        for (int i = 0; i < vertexCount; i++) {
-            if (i < assignments.size()) {
-                assignmentsArray[i] = assignments.get(i);
-                partSizes[assignments.get(i)]++;
-            }
+        for (int assignment : assignmentsArray) {
+            partSizes[assignment]++;
         }
         
         Partition partition = new Partition(assignmentsArray, partSizes, partCount, 0, 10);
         
         return new Pair<>(graph, partition);
     }
+    
+    /**
+     * Format 5: Binarny CSR
+     * Plik jest mapowany do pamięci, sprawdzana jest suma kontrolna, a tablice kopiowane na stertę
+     * Drugi element pary to dane CSRRG lub null, jeśli plik powstał z innego formatu
+     */
+    public static Pair<Graph, CsrrgDataHolder> loadGraphFromBinary(String filePath) throws IOException {
+        BinaryGraphFile file = BinaryGraphFile.open(filePath);
+        file.verifyChecksum();
+        return file.toGraph();
+    }
+    
+    /**
+     * Format 5: Binarny CSR bez kopiowania na stertę
+     * Graf czyta tablice bezpośrednio ze zmapowanego pliku, więc jego rozmiar nie jest ograniczony przez -Xmx
+     * Suma kontrolna nie jest sprawdzana (patrz BinaryGraphFile.verifyChecksum)
+     */
+    public static Pair<Graph, CsrrgDataHolder> loadGraphFromBinaryMapped(String filePath) throws IOException {
+        return BinaryGraphFile.open(filePath).toMappedGraph();
+    }
+    
+    /**
+     * Format 6: Lista krawędzi
+     * Każda linia to para "u v"; krawędzie mogą występować w dowolnej kolejności, w jednym lub obu kierunkach
+     * Graf jest budowany równolegle przez GraphBuilder (symetryzacja, bez pętli własnych i duplikatów)
+     */
+    public static Graph loadGraphFromEdgeList(String filePath) throws IOException {
+        return EdgeListReader.read(filePath);
+    }
+    
+    /**
+     * Format 7: Spakowane przypisanie binarne (AssignmentFile)
+     * Dowolna liczba części, ceil(log2 k) bitów na wierzchołek; graf wynikowy nie ma krawędzi
+     */
+    public static Pair<Graph, Partition> loadPackedAssignment(String filePath) throws IOException {
+        Partition partition = AssignmentFile.read(filePath);
+        int vertexCount = partition.getAssignments().length;
+        Graph graph = new Graph(vertexCount, 0, new int[vertexCount + 1], new int[0]);
+        return new Pair<>(graph, partition);
+    }
+    
+    /**
+     * Nakłada tekstowe przypisanie (format 3) na wczytany graf bez jego ponownego wczytywania
+     * Zwrócony podział ma policzone rozmiary części i liczbę przeciętych krawędzi
+     */
+    public static Partition applySimpleAssignmentText(String filePath, Graph graph) throws IOException {
+        return AssignmentOverlay.applyText(filePath, graph);
+    }
+    
+    /**
+     * Nakłada binarne przypisanie (format 4) na wczytany graf; rozmiar pliku musi odpowiadać grafowi
+     */
+    public static Partition applySimpleAssignmentBinary(String filePath, Graph graph) throws IOException {
+        return AssignmentOverlay.applyBinary(filePath, graph);
+    }
+    
+    /**
+     * Nakłada spakowane przypisanie (format 7) na wczytany graf; liczba wierzchołków musi się zgadzać
+     */
+    public static Partition applyPackedAssignment(String filePath, Graph graph) throws IOException {
+        return AssignmentOverlay.applyPacked(filePath, graph);
+    }
 }
\ No newline at end of file
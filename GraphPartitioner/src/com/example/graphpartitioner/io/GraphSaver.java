@@ -2,61 +2,87 @@ package com.example.graphpartitioner.io;
 
 import com.example.graphpartitioner.model.Graph;
 import com.example.graphpartitioner.model.Partition;
+import com.example.graphpartitioner.model.SubgraphExtractor;
 
 import java.io.*;
-import java.util.*;
 
 /**
  * Klasa do zapisywania grafów i podziałów do różnych formatów plików
+ * Formaty tekstowe są zapisywane przez AsciiWriter - liczby trafiają jako cyfry prosto do bufora bajtów
  */
 public class GraphSaver {
     
+    /**
+     * Separator wartości w liniach CSRRG
+     */
+    private static final byte SEPARATOR = ';';
+    
+    private static final byte[] ASSIGNMENT_SEPARATOR = {' ', '-', ' '};
+    
     /**
      * Format 1: Tekstowy (macierz + przypisania)
      * Analogicznie do zapisz_podzial_tekstowy z C
+     * Wiersz macierzy powstaje z gotowego szablonu "[0. 0. ... 0.]", w którym zmieniane są
+     * tylko pozycje sąsiadów, więc zapis wiersza to jedno kopiowanie bajtów
      */
     public static void savePartitionToAdjacencyMatrixText(String filePath, Graph graph, Partition partition) 
             throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        try (AsciiWriter writer = new AsciiWriter(filePath)) {
             // Nagłówek z informacjami o podziale
-            writer.println("# Podzial grafu na " + partition.getPartCount() + " czesci");
-            writer.println("# Liczba wierzcholkow: " + graph.getVertexCount());
-            writer.println("# Liczba przecietych krawedzi: " + partition.getCutEdges());
-            writer.println();
+            writer.write("# Podzial grafu na " + partition.getPartCount() + " czesci");
+            writer.newLine();
+            writer.write("# Liczba wierzcholkow: " + graph.getVertexCount());
+            writer.newLine();
+            writer.write("# Liczba przecietych krawedzi: " + partition.getCutEdges());
+            writer.newLine();
+            writer.newLine();
             
             // Macierz sąsiedztwa
-            writer.println("# Macierz sasiedztwa:");
+            writer.write("# Macierz sasiedztwa:");
+            writer.newLine();
             
             int n = graph.getVertexCount();
+            byte[] row = new byte[3 * n + 1];
+            row[0] = '[';
+            for (int j = 0; j < n; j++) {
+                row[1 + 3 * j] = '0';
+                row[2 + 3 * j] = '.';
+                row[3 + 3 * j] = ' ';
+            }
+            row[row.length - 1] = ']';
+            
             for (int i = 0; i < n; i++) {
-                writer.print("[");
-                
-                // Stwórz wiersz macierzy
-                boolean[] row = new boolean[n];
-                List<Integer> neighbors = graph.getNeighbors(i);
-                for (int neighbor : neighbors) {
+                for (int j = graph.getNeighborsStart(i); j < graph.getNeighborsEnd(i); j++) {
+                    int neighbor = graph.getNeighborAt(j);
                     if (neighbor >= 0 && neighbor < n) {
-                        row[neighbor] = true;
+                        row[1 + 3 * neighbor] = '1';
                     }
                 }
                 
-                // Zapisz wiersz
-                for (int j = 0; j < n; j++) {
-                    writer.print(row[j] ? "1." : "0.");
-                    if (j < n - 1) {
-                        writer.print(" ");
+                writer.write(row, 0, row.length);
+                writer.newLine();
+                
+                // Przywróć szablon
+                for (int j = graph.getNeighborsStart(i); j < graph.getNeighborsEnd(i); j++) {
+                    int neighbor = graph.getNeighborAt(j);
+                    if (neighbor >= 0 && neighbor < n) {
+                        row[1 + 3 * neighbor] = '0';
                     }
                 }
-                writer.println("]");
             }
             
             // Lista przypisań
-            writer.println();
-            writer.println("# Lista przypisan wierzcholkow do czesci:");
-            writer.println("# Format: <id_wierzcholka> - <id_czesci>");
+            writer.newLine();
+            writer.write("# Lista przypisan wierzcholkow do czesci:");
+            writer.newLine();
+            writer.write("# Format: <id_wierzcholka> - <id_czesci>");
+            writer.newLine();
             
             for (int v = 0; v < n; v++) {
-                writer.println(v + " - " + partition.getAssignment(v));
+                writer.writeInt(v);
+                writer.write(ASSIGNMENT_SEPARATOR, 0, ASSIGNMENT_SEPARATOR.length);
+                writer.writeInt(partition.getAssignment(v));
+                writer.newLine();
             }
         }
     }
@@ -67,111 +93,88 @@ public class GraphSaver {
      */
     public static void savePartitionToCsrrgText(String filePath, Graph graph, Partition partition, 
                                                 CsrrgDataHolder initialCsrrgData) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        int partCount = partition.getPartCount();
+        CsrrgIndex index;
+        try (AsciiWriter writer = new AsciiWriter(filePath)) {
+            int n = graph.getVertexCount();
+            CsrrgIndex.Recorder lines = new CsrrgIndex.Recorder(writer, 5 + 2 * partCount);
+            
             // Linia 1: liczba części w podziale
-            writer.println(partition.getPartCount());
+            writer.writeInt(partCount);
+            lines.endLine();
             
             // Linia 2: wierzchołki przypisane do poszczególnych części
-            List<List<Integer>> verticesByPart = new ArrayList<>();
-            for (int i = 0; i < partition.getPartCount(); i++) {
-                verticesByPart.add(new ArrayList<>());
-            }
-            
-            for (int v = 0; v < graph.getVertexCount(); v++) {
-                int partId = partition.getAssignment(v);
-                if (partId >= 0 && partId < partition.getPartCount()) {
-                    verticesByPart.get(partId).add(v);
-                }
-            }
-            
-            // Zapisz płaską listę wierzchołków
-            boolean first = true;
-            for (List<Integer> vertices : verticesByPart) {
-                for (int v : vertices) {
-                    if (!first) {
-                        writer.print(";");
-                    }
-                    writer.print(v);
-                    first = false;
-                }
-            }
-            writer.println();
+            SubgraphExtractor extractor = new SubgraphExtractor(graph, partition);
+            int[] partStarts = extractor.getPartStarts();
+            int[] partVertices = extractor.getPartVertices();
+            writer.writeIntList(partVertices, 0, partVertices.length, SEPARATOR);
+            lines.endLine();
             
             // Linia 3: wskaźniki wierszy dla struktury części
-            writer.print("0");
-            int pointer = 0;
-            for (List<Integer> vertices : verticesByPart) {
-                pointer += vertices.size();
-                writer.print(";" + pointer);
-            }
-            writer.println();
+            writer.writeIntList(partStarts, 0, partStarts.length, SEPARATOR);
+            lines.endLine();
             
             // Linia 4: lista sąsiedztwa grafu głównego
-            int[] adjacencyList = graph.getAdjacencyList();
-            if (adjacencyList.length > 0) {
-                writer.print(adjacencyList[0]);
-                for (int i = 1; i < adjacencyList.length; i++) {
-                    writer.print(";" + adjacencyList[i]);
+            int adjacencyLength = graph.getAdjacencyLength();
+            if (!graph.isOffHeap()) {
+                writer.writeIntList(graph.getAdjacencyList(), 0, adjacencyLength, SEPARATOR);
+            } else {
+                for (int i = 0; i < adjacencyLength; i++) {
+                    if (i > 0) {
+                        writer.write(SEPARATOR);
+                    }
+                    writer.writeInt(graph.getNeighborAt(i));
                 }
             }
-            writer.println();
+            lines.endLine();
             
             // Linia 5: wskaźniki wierszy grafu głównego
-            int[] rowPointers = graph.getRowPointers();
-            writer.print(rowPointers[0]);
-            for (int i = 1; i < rowPointers.length; i++) {
-                writer.print(";" + rowPointers[i]);
+            writer.writeInt(graph.getNeighborsStart(0));
+            for (int v = 0; v < n; v++) {
+                writer.write(SEPARATOR);
+                writer.writeInt(graph.getNeighborsEnd(v));
             }
-            writer.println();
+            lines.endLine();
             
             // Linie 6+: wskaźniki i listy sąsiedztwa dla grafów części
-            for (int p = 0; p < partition.getPartCount(); p++) {
-                List<Integer> partVertices = verticesByPart.get(p);
-                int partSize = partVertices.size();
-                
-                // Mapa z globalnych indeksów na lokalne
-                Map<Integer, Integer> globalToLocal = new HashMap<>();
-                for (int i = 0; i < partSize; i++) {
-                    globalToLocal.put(partVertices.get(i), i);
-                }
-                
-                // Buduj listę sąsiedztwa dla podgrafu
-                List<Integer> subgraphAdjList = new ArrayList<>();
-                int[] subgraphRowPtrs = new int[partSize + 1];
-                
-                for (int localIdx = 0; localIdx < partSize; localIdx++) {
-                    int globalIdx = partVertices.get(localIdx);
-                    subgraphRowPtrs[localIdx] = subgraphAdjList.size();
-                    
-                    List<Integer> neighbors = graph.getNeighbors(globalIdx);
-                    for (int neighbor : neighbors) {
-                        if (partition.getAssignment(neighbor) == p && globalToLocal.containsKey(neighbor)) {
-                            subgraphAdjList.add(globalToLocal.get(neighbor));
-                        }
-                    }
-                }
-                subgraphRowPtrs[partSize] = subgraphAdjList.size();
-                
-                // Zapisz wskaźniki wierszy dla podgrafu
-                if (partSize > 0) {
-                    writer.print(subgraphRowPtrs[0]);
-                    for (int i = 1; i <= partSize; i++) {
-                        writer.print(";" + subgraphRowPtrs[i]);
-                    }
-                } else {
-                    writer.print("0");
-                }
-                writer.println();
-                
-                // Zapisz listę sąsiedztwa dla podgrafu
-                if (!subgraphAdjList.isEmpty()) {
-                    writer.print(subgraphAdjList.get(0));
-                    for (int i = 1; i < subgraphAdjList.size(); i++) {
-                        writer.print(";" + subgraphAdjList.get(i));
-                    }
-                }
-                writer.println();
-            }
+            // Podgrafy są budowane równolegle, a zapisywane po kolei
+            extractor.forEachPart((part, subgraph) -> {
+                int[] rowPointers = subgraph.getRowPointers();
+                int[] adjacencyList = subgraph.getAdjacencyList();
+                writer.writeIntList(rowPointers, 0, rowPointers.length, SEPARATOR);
+                lines.endLine();
+                writer.writeIntList(adjacencyList, 0, adjacencyList.length, SEPARATOR);
+                lines.endLine();
+            });
+            index = lines.toIndex();
         }
+        
+        // Indeks linii obok pliku pozwala później wczytać pojedyncze sekcje bez przeglądania całego pliku
+        index.save(filePath);
+    }
+    
+    /**
+     * Format 3: Binarny CSR (graf bez podziału)
+     * Zapisuje graf i dane CSRRG (jeśli są dostępne) do pliku otwieranego przez mapowanie pamięci
+     */
+    public static void saveGraphToBinary(String filePath, Graph graph, CsrrgDataHolder csrrgData) throws IOException {
+        BinaryGraphFile.write(filePath, graph, csrrgData);
+    }
+    
+    /**
+     * Format 3 w wersji skompresowanej: lista sąsiedztwa zapisana jako CompressedGraph
+     * Mniejszy jest tylko plik - przy wczytywaniu graf jest dekodowany na stertę (bez mapowania grafu)
+     */
+    public static void saveGraphToCompressedBinary(String filePath, Graph graph, CsrrgDataHolder csrrgData)
+            throws IOException {
+        BinaryGraphFile.write(filePath, graph, csrrgData, true);
+    }
+    
+    /**
+     * Format 4: Spakowane przypisanie binarne (AssignmentFile)
+     * Numery części zajmują ceil(log2 k) bitów na wierzchołek
+     */
+    public static void savePartitionToPackedBinary(String filePath, Partition partition) throws IOException {
+        AssignmentFile.write(filePath, partition);
     }
 }
\ No newline at end of file
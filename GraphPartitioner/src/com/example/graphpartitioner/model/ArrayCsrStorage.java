@@ -0,0 +1,39 @@
+package com.example.graphpartitioner.model;
+
+/**
+ * Tablice CSR przechowywane na stercie
+ */
+final class ArrayCsrStorage implements CsrStorage {
+    final int[] rowPointers;
+    final int[] adjacencyList;
+    
+    ArrayCsrStorage(int[] rowPointers, int[] adjacencyList) {
+        this.rowPointers = rowPointers;
+        this.adjacencyList = adjacencyList;
+    }
+    
+    @Override
+    public int getRowPointer(int index) {
+        return rowPointers[index];
+    }
+    
+    @Override
+    public int getNeighborAt(int offset) {
+        return adjacencyList[offset];
+    }
+    
+    @Override
+    public int getRowPointerCount() {
+        return rowPointers.length;
+    }
+    
+    @Override
+    public int getAdjacencyLength() {
+        return adjacencyList.length;
+    }
+    
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.example.graphpartitioner.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Skompresowana lista sąsiedztwa grafu.
+ * Sąsiedzi każdego wierzchołka są sortowani i zapisywani jako różnice (gap encoding)
+ * w postaci liczb o zmiennej długości (7 bitów na bajt, najstarszy bit oznacza kontynuację).
+ * Wiersz wierzchołka v: stopień, zigzag(pierwszy sąsiad - v), kolejne różnice.
+ * Dla grafów o lokalnej numeracji (siatki) większość wpisów zajmuje 1-2 bajty zamiast 4.
+ * Sąsiadów odczytuje się sekwencyjnie przez NeighborCursor lub forEachNeighbor.
+ * W aplikacji jest to format zapisu na dysku (skompresowany binarny CSR): algorytmy podziału
+ * nie czytają tej postaci, plik jest przy wczytywaniu dekodowany do zwykłego grafu na stercie.
+ */
+public final class CompressedGraph {
+    
+    /**
+     * Maksymalny rozmiar tablicy bajtów bezpiecznie obsługiwany przez JVM
+     */
+    private static final int MAX_DATA_LENGTH = Integer.MAX_VALUE - 8;
+    
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int[] offsets;    // Początek wiersza każdego wierzchołka w data
+    private final byte[] data;
+    
+    private CompressedGraph(int vertexCount, int edgeCount, int[] offsets, byte[] data) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.data = data;
+    }
+    
+    /**
+     * Kompresuje listę sąsiedztwa grafu (w kolejności posortowanej, z zachowaniem duplikatów)
+     * Algorytmy podziału pracują na nieskierowanym widoku, więc zwykle kompresuje się graph.getUndirectedView()
+     */
+    public static CompressedGraph fromGraph(Graph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        byte[] data = new byte[Math.max(16, graph.getAdjacencyLength() + 2 * n)];
+        int position = 0;
+        int[] row = new int[0];
+        
+        for (int v = 0; v < n; v++) {
+            int degree = graph.getDegree(v);
+            if (row.length < degree) {
+                row = new int[Math.max(degree, row.length * 2)];
+            }
+            int start = graph.getNeighborsStart(v);
+            for (int i = 0; i < degree; i++) {
+                row[i] = graph.getNeighborAt(start + i);
+            }
+            Arrays.sort(row, 0, degree);
+            
+            // Najgorszy przypadek: 5 bajtów stopnia i po 5 bajtów na wpis
+            long needed = position + 5L * (degree + 2);
+            if (needed > data.length) {
+                if (needed > MAX_DATA_LENGTH) {
+                    throw new IllegalStateException("Compressed adjacency exceeds maximum array size");
+                }
+                data = Arrays.copyOf(data, (int) Math.min(MAX_DATA_LENGTH, Math.max(needed, 2L * data.length)));
+            }
+            
+            offsets[v] = position;
+            position = writeVarint(data, position, degree);
+            long previous = v;
+            for (int i = 0; i < degree; i++) {
+                long gap = row[i] - previous;
+                // Pierwsza różnica może być ujemna - kodowanie zigzag
+                long encoded = i == 0 ? (gap << 1) ^ (gap >> 63) : gap;
+                position = writeVarint(data, position, encoded);
+                previous = row[i];
+            }
+        }
+        offsets[n] = position;
+        
+        return new CompressedGraph(n, graph.getEdgeCount(), offsets, Arrays.copyOf(data, position));
+    }
+    
+    /**
+     * Tworzy graf z zakodowanych danych (np. wczytanych z pliku binarnego)
+     * offsets to początki wierszy w data (liczba wierzchołków + 1 wartości)
+     */
+    public static CompressedGraph fromEncoded(int vertexCount, int edgeCount, int[] offsets, byte[] data) {
+        if (offsets.length != vertexCount + 1) {
+            throw new IllegalArgumentException("Expected " + (vertexCount + 1) + " row offsets, got " + offsets.length);
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            if (offsets[v] < 0 || offsets[v] >= offsets[v + 1]) {
+                throw new IllegalArgumentException("Invalid compressed row offset for vertex " + v);
+            }
+        }
+        if (offsets[vertexCount] != data.length) {
+            throw new IllegalArgumentException("Compressed data length does not match row offsets");
+        }
+        return new CompressedGraph(vertexCount, edgeCount, offsets, data);
+    }
+    
+    private static int writeVarint(byte[] data, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+    
+    /**
+     * Zwraca stopień wierzchołka (zapisany na początku jego wiersza)
+     */
+    public int getDegree(int vertex) {
+        int position = offsets[vertex];
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    /**
+     * Wywołuje akcję dla każdego sąsiada wierzchołka (rosnąco)
+     * Dekodowanie odbywa się na zmiennych lokalnych, bez tworzenia kursora
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        int position = offsets[vertex];
+        long remaining = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            remaining |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        
+        long previous = vertex;
+        for (long k = 0; k < remaining; k++) {
+            long encoded = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                encoded |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += k == 0 ? (encoded >>> 1) ^ -(encoded & 1) : encoded;
+            action.accept((int) previous);
+        }
+    }
+    
+    /**
+     * Zwraca nowy kursor sąsiadów; jeden kursor może być używany wielokrotnie przez reset
+     */
+    public NeighborCursor cursor() {
+        return new NeighborCursor(this);
+    }
+    
+    /**
+     * Dekompresuje graf do zwykłego formatu CSR
+     */
+    public Graph toGraph() {
+        int[] rowPointers = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            rowPointers[v + 1] = rowPointers[v] + getDegree(v);
+        }
+        
+        int[] adjacencyList = new int[rowPointers[vertexCount]];
+        NeighborCursor cursor = cursor();
+        int write = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            cursor.reset(v);
+            while (cursor.hasNext()) {
+                adjacencyList[write++] = cursor.next();
+            }
+        }
+        return new Graph(vertexCount, edgeCount, rowPointers, adjacencyList);
+    }
+    
+    /**
+     * Zwraca rozmiar skompresowanej struktury w bajtach (dane i wskaźniki wierszy)
+     */
+    public long getMemoryBytes() {
+        return data.length + 4L * offsets.length;
+    }
+    
+    // Gettery
+    public int getVertexCount() {
+        return vertexCount;
+    }
+    
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    /**
+     * Zwraca początki wierszy w zakodowanych danych (liczba wierzchołków + 1 wartości)
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+    
+    /**
+     * Zwraca zakodowane wiersze (stopień i różnice sąsiadów jako liczby o zmiennej długości)
+     */
+    public byte[] getData() {
+        return data;
+    }
+    
+    /**
+     * Sekwencyjny dekoder sąsiadów jednego wierzchołka, działający bez alokacji
+     */
+    public static final class NeighborCursor {
+        private final byte[] data;
+        private final int[] offsets;
+        private int position;
+        private int remaining;
+        private long previous;
+        private boolean first;
+        
+        private NeighborCursor(CompressedGraph graph) {
+            this.data = graph.data;
+            this.offsets = graph.offsets;
+        }
+        
+        /**
+         * Ustawia kursor na początku listy sąsiadów wierzchołka
+         */
+        public NeighborCursor reset(int vertex) {
+            position = offsets[vertex];
+            remaining = (int) readVarint();
+            previous = vertex;
+            first = true;
+            return this;
+        }
+        
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+        
+        public int next() {
+            long encoded = readVarint();
+            long gap = first ? (encoded >>> 1) ^ -(encoded & 1) : encoded;
+            first = false;
+            previous += gap;
+            remaining--;
+            return (int) previous;
+        }
+        
+        private long readVarint() {
+            byte b = data[position++];
+            if (b >= 0) {
+                return b;
+            }
+            long value = b & 0x7F;
+            int shift = 7;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.graphpartitioner.model;
+
+/**
+ * Wspólny interfejs odczytu tablic CSR grafu, niezależny od miejsca ich przechowywania
+ * (tablice na stercie lub plik zmapowany do pamięci poza stertą)
+ */
+public interface CsrStorage {
+    
+    /**
+     * Zwraca wskaźnik wiersza o danym indeksie (od 0 do liczby wierzchołków włącznie)
+     */
+    int getRowPointer(int index);
+    
+    /**
+     * Zwraca wpis listy sąsiedztwa pod danym indeksem
+     */
+    int getNeighborAt(int offset);
+    
+    /**
+     * Zwraca liczbę wskaźników wierszy (liczba wierzchołków + 1)
+     */
+    int getRowPointerCount();
+    
+    /**
+     * Zwraca długość listy sąsiedztwa
+     */
+    int getAdjacencyLength();
+    
+    /**
+     * Czy dane są przechowywane poza stertą
+     */
+    boolean isOffHeap();
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.example.graphpartitioner.model;
+
+import java.util.Arrays;
+
+/**
+ * Indeks do szybkiego sprawdzania istnienia krawędzi.
+ * Krótkie listy sąsiadów są przeglądane liniowo, dłuższe przeszukiwane binarnie
+ * w posortowanej kopii (O(log d)), a wierzchołki o dużym stopniu mają własną
+ * tablicę mieszającą z adresowaniem otwartym (oczekiwane O(1)).
+ * Powtórzone wpisy są wykrywane w posortowanych wierszach i mogą zostać scalone (mergeDuplicates).
+ */
+public final class EdgeIndex {
+    
+    /**
+     * Od tego stopnia wierzchołek dostaje tablicę mieszającą
+     */
+    public static final int HASH_DEGREE_THRESHOLD = 64;
+    
+    /**
+     * Poniżej tego stopnia przegląd liniowy jest szybszy od wyszukiwania binarnego
+     */
+    private static final int LINEAR_SCAN_DEGREE = 16;
+    
+    /**
+     * Pusty slot tablicy mieszającej (nie jest poprawnym numerem wierzchołka)
+     */
+    private static final int EMPTY = Integer.MIN_VALUE;
+    
+    private final Graph graph;
+    private final int[] sorted;        // Posortowana kopia listy sąsiedztwa (null, gdy graf jest już posortowany)
+    private final int[] tableOffsets;  // Początek tablicy mieszającej wierzchołka w tables (długość 0 = brak)
+    private final int[] tables;
+    private final long duplicates;     // Liczba powtórzonych wpisów w wierszach
+    
+    private EdgeIndex(Graph graph, int[] sorted, int[] tableOffsets, int[] tables, long duplicates) {
+        this.graph = graph;
+        this.sorted = sorted;
+        this.tableOffsets = tableOffsets;
+        this.tables = tables;
+        this.duplicates = duplicates;
+    }
+    
+    /**
+     * Buduje indeks dla grafu w czasie O(E log d)
+     * Posortowana kopia listy sąsiedztwa powstaje tylko wtedy, gdy wiersze grafu nie są posortowane
+     */
+    static EdgeIndex build(Graph graph) {
+        int n = graph.getVertexCount();
+        
+        boolean rowsSorted = true;
+        for (int u = 0; u < n && rowsSorted; u++) {
+            for (int i = graph.getNeighborsStart(u) + 1; i < graph.getNeighborsEnd(u); i++) {
+                if (graph.getNeighborAt(i - 1) > graph.getNeighborAt(i)) {
+                    rowsSorted = false;
+                    break;
+                }
+            }
+        }
+        
+        int[] sorted = null;
+        if (!rowsSorted) {
+            sorted = new int[graph.getAdjacencyLength()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = graph.getNeighborAt(i);
+            }
+            for (int u = 0; u < n; u++) {
+                Arrays.sort(sorted, graph.getNeighborsStart(u), graph.getNeighborsEnd(u));
+            }
+        }
+        
+        // W posortowanym wierszu powtórzenie sąsiaduje z poprzednim wpisem
+        long duplicates = 0;
+        for (int u = 0; u < n; u++) {
+            for (int i = graph.getNeighborsStart(u) + 1; i < graph.getNeighborsEnd(u); i++) {
+                if (sortedAt(graph, sorted, i) == sortedAt(graph, sorted, i - 1)) {
+                    duplicates++;
+                }
+            }
+        }
+        
+        // Tablice mieszające o rozmiarze potęgi dwójki co najmniej dwukrotnie większym od stopnia
+        int[] tableOffsets = new int[n + 1];
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            tableOffsets[u] = (int) total;
+            int degree = graph.getDegree(u);
+            if (degree >= HASH_DEGREE_THRESHOLD) {
+                total += Integer.highestOneBit(degree) << 2;
+                if (total > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Edge index hash tables exceed maximum array size");
+                }
+            }
+        }
+        tableOffsets[n] = (int) total;
+        
+        int[] tables = new int[(int) total];
+        Arrays.fill(tables, EMPTY);
+        for (int u = 0; u < n; u++) {
+            int offset = tableOffsets[u];
+            int mask = tableOffsets[u + 1] - offset - 1;
+            if (mask < 0) {
+                continue;
+            }
+            for (int i = graph.getNeighborsStart(u); i < graph.getNeighborsEnd(u); i++) {
+                int v = graph.getNeighborAt(i);
+                int slot = mix(v) & mask;
+                while (tables[offset + slot] != EMPTY && tables[offset + slot] != v) {
+                    slot = (slot + 1) & mask;
+                }
+                tables[offset + slot] = v;
+            }
+        }
+        
+        return new EdgeIndex(graph, sorted, tableOffsets, tables, duplicates);
+    }
+    
+    private static int sortedAt(Graph graph, int[] sorted, int offset) {
+        return sorted != null ? sorted[offset] : graph.getNeighborAt(offset);
+    }
+    
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Sprawdza, czy lista sąsiadów u zawiera v
+     */
+    public boolean contains(int u, int v) {
+        int offset = tableOffsets[u];
+        int mask = tableOffsets[u + 1] - offset - 1;
+        
+        if (mask >= 0) {
+            int slot = mix(v) & mask;
+            int value;
+            while ((value = tables[offset + slot]) != EMPTY) {
+                if (value == v) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+        
+        int low = graph.getNeighborsStart(u);
+        int end = graph.getNeighborsEnd(u);
+        if (end - low < LINEAR_SCAN_DEGREE) {
+            for (int i = low; i < end; i++) {
+                if (graph.getNeighborAt(i) == v) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        // Wyszukiwanie binarne w posortowanym wierszu
+        int high = end - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = sortedAt(graph, sorted, mid);
+            if (value < v) {
+                low = mid + 1;
+            } else if (value > v) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Zwraca liczbę powtórzonych wpisów na listach sąsiadów
+     */
+    public long getDuplicateCount() {
+        return duplicates;
+    }
+    
+    /**
+     * Tworzy graf na stercie z posortowanymi wierszami bez powtórzeń
+     * Liczba krawędzi to liczba par {u, v}; brak wpisu odwrotnego jest sprawdzany w indeksie
+     */
+    Graph mergeDuplicates() {
+        int n = graph.getVertexCount();
+        int[] rowPointers = new int[n + 1];
+        int[] adjacencyList = new int[(int) (graph.getAdjacencyLength() - duplicates)];
+        int write = 0;
+        long edges = 0;
+        
+        for (int u = 0; u < n; u++) {
+            rowPointers[u] = write;
+            int start = graph.getNeighborsStart(u);
+            for (int i = start; i < graph.getNeighborsEnd(u); i++) {
+                int v = sortedAt(graph, sorted, i);
+                if (i > start && v == sortedAt(graph, sorted, i - 1)) {
+                    continue;
+                }
+                adjacencyList[write++] = v;
+                // Para obecna w obu kierunkach liczy się raz, od mniejszego końca
+                if (v >= u || v < 0 || !contains(v, u)) {
+                    edges++;
+                }
+            }
+        }
+        rowPointers[n] = write;
+        
+        return new Graph(n, (int) edges, rowPointers, adjacencyList);
+    }
+}
\ No newline at end of file
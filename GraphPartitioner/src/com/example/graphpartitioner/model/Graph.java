@@ -1,26 +1,57 @@
 package com.example.graphpartitioner.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Reprezentacja grafu w formacie CSR (Compressed Sparse Row)
+ * Tablice CSR mogą leżeć na stercie lub poza nią (patrz CsrStorage) - algorytmy
+ * odczytują je przez getNeighborsStart/getNeighborsEnd/getNeighborAt
  */
 public class Graph {
     private final int vertexCount;
     private final int edgeCount;
-    private final int[] rowPointers;
+    private final CsrStorage storage;
+    private final int[] rowPointers;     // Tablice grafu na stercie (null dla grafu poza stertą)
     private final int[] adjacencyList;
+    private volatile Graph undirectedView; // Leniwie budowany widok nieskierowany
+    private volatile EdgeIndex edgeIndex;  // Opcjonalny indeks krawędzi dla hasEdge
     
     public Graph(int vertexCount, int edgeCount, int[] rowPointers, int[] adjacencyList) {
+        this(vertexCount, edgeCount, new ArrayCsrStorage(rowPointers, adjacencyList));
+    }
+    
+    /**
+     * Tworzy graf na dowolnym magazynie tablic CSR (np. pliku zmapowanym do pamięci)
+     */
+    public Graph(int vertexCount, int edgeCount, CsrStorage storage) {
+        if (storage.getRowPointerCount() != vertexCount + 1) {
+            throw new IllegalArgumentException("Row pointer count does not match vertex count");
+        }
         this.vertexCount = vertexCount;
         this.edgeCount = edgeCount;
-        this.rowPointers = rowPointers;
-        this.adjacencyList = adjacencyList;
+        this.storage = storage;
+        
+        // Dla tablic na stercie dostęp omija wywołania magazynu
+        ArrayCsrStorage arrays = storage instanceof ArrayCsrStorage ? (ArrayCsrStorage) storage : null;
+        this.rowPointers = arrays != null ? arrays.rowPointers : null;
+        this.adjacencyList = arrays != null ? arrays.adjacencyList : null;
+    }
+    
+    private int rowPointer(int index) {
+        return rowPointers != null ? rowPointers[index] : storage.getRowPointer(index);
+    }
+    
+    private int neighbor(int offset) {
+        return adjacencyList != null ? adjacencyList[offset] : storage.getNeighborAt(offset);
     }
     
     /**
      * Zwraca listę sąsiadów danego wierzchołka
+     * Tworzy nową listę przy każdym wywołaniu - w pętlach należy używać
+     * getNeighborsStart/getNeighborsEnd/getNeighborAt lub forEachNeighbor
      */
     public List<Integer> getNeighbors(int vertex) {
         if (vertex < 0 || vertex >= vertexCount) {
@@ -28,29 +59,74 @@ public class Graph {
         }
         
         List<Integer> neighbors = new ArrayList<>();
-        int start = rowPointers[vertex];
-        int end = rowPointers[vertex + 1];
+        int start = rowPointer(vertex);
+        int end = rowPointer(vertex + 1);
         
         for (int i = start; i < end; i++) {
-            neighbors.add(adjacencyList[i]);
+            neighbors.add(neighbor(i));
         }
         
         return neighbors;
     }
     
+    /**
+     * Zwraca stopień wierzchołka (liczbę wpisów na jego liście sąsiedztwa)
+     */
+    public int getDegree(int vertex) {
+        return rowPointer(vertex + 1) - rowPointer(vertex);
+    }
+    
+    /**
+     * Zwraca początek listy sąsiadów wierzchołka w tablicy sąsiedztwa
+     * Sąsiedzi wierzchołka v to getNeighborAt(i) dla i od getNeighborsStart(v) do getNeighborsEnd(v) - 1
+     */
+    public int getNeighborsStart(int vertex) {
+        return rowPointer(vertex);
+    }
+    
+    /**
+     * Zwraca koniec (wyłącznie) listy sąsiadów wierzchołka w tablicy sąsiedztwa
+     */
+    public int getNeighborsEnd(int vertex) {
+        return rowPointer(vertex + 1);
+    }
+    
+    /**
+     * Zwraca sąsiada zapisanego pod danym indeksem tablicy sąsiedztwa
+     */
+    public int getNeighborAt(int offset) {
+        return neighbor(offset);
+    }
+    
+    /**
+     * Wywołuje akcję dla każdego sąsiada wierzchołka bez tworzenia obiektów
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        int end = rowPointer(vertex + 1);
+        for (int i = rowPointer(vertex); i < end; i++) {
+            action.accept(neighbor(i));
+        }
+    }
+    
     /**
      * Sprawdza czy istnieje krawędź między wierzchołkami u i v
+     * Po zbudowaniu indeksu (buildEdgeIndex) działa w czasie O(log d) lub O(1) dla wierzchołków o dużym stopniu
      */
     public boolean hasEdge(int u, int v) {
         if (u < 0 || u >= vertexCount || v < 0 || v >= vertexCount) {
             return false;
         }
         
-        int start = rowPointers[u];
-        int end = rowPointers[u + 1];
+        EdgeIndex index = edgeIndex;
+        if (index != null) {
+            return index.contains(u, v);
+        }
+        
+        int start = rowPointer(u);
+        int end = rowPointer(u + 1);
         
         for (int i = start; i < end; i++) {
-            if (adjacencyList[i] == v) {
+            if (neighbor(i) == v) {
                 return true;
             }
         }
@@ -58,6 +134,216 @@ public class Graph {
         return false;
     }
     
+    /**
+     * Buduje (jednorazowo) indeks krawędzi używany przez hasEdge
+     * Warto go zbudować przy wczytywaniu grafu, jeśli krawędzie będą sprawdzane masowo
+     */
+    public EdgeIndex buildEdgeIndex() {
+        EdgeIndex index = edgeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = edgeIndex;
+                if (index == null) {
+                    index = EdgeIndex.build(this);
+                    edgeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Buduje indeks krawędzi (np. przy wczytywaniu grafu) i scala powtórzone wpisy list sąsiadów
+     * Zwraca ten sam graf, gdy powtórzeń nie ma, a w przeciwnym razie nowy graf na stercie z własnym indeksem
+     */
+    public Graph withEdgeIndex() {
+        EdgeIndex index = buildEdgeIndex();
+        if (index.getDuplicateCount() == 0) {
+            return this;
+        }
+        Graph merged = index.mergeDuplicates();
+        merged.buildEdgeIndex();
+        return merged;
+    }
+    
+    /**
+     * Zwraca indeks krawędzi lub null, jeśli nie został zbudowany
+     */
+    public EdgeIndex getEdgeIndex() {
+        return edgeIndex;
+    }
+    
+    /**
+     * Zwraca nieskierowany widok grafu: każda krawędź {u, v} występuje na listach
+     * obu końców, bez pętli własnych, duplikatów i wpisów spoza zakresu wierzchołków.
+     * Pliki CSRRG często zawierają tylko jeden kierunek krawędzi, a algorytmy
+     * aktualizujące zyski przyrostowo potrzebują pełnej listy sąsiadów.
+     * Jeśli graf już spełnia te warunki, zwracany jest ten sam obiekt
+     * (także graf poza stertą), w przeciwnym razie widok powstaje na stercie.
+     */
+    public Graph getUndirectedView() {
+        Graph view = undirectedView;
+        if (view == null) {
+            view = buildUndirectedView();
+            view.undirectedView = view;
+            undirectedView = view;
+        }
+        return view;
+    }
+    
+    /**
+     * Oznacza graf jako już nieskierowany (np. zbudowany przez GraphBuilder z symetryzacją),
+     * aby getUndirectedView zwracał go bez sprawdzania
+     */
+    void markUndirected() {
+        undirectedView = this;
+    }
+    
+    private Graph buildUndirectedView() {
+        // Graf z posortowanymi, symetrycznymi wierszami (np. zapisany po normalizacji i zmapowany)
+        // jest rozpoznawany bez alokacji - w przeciwnym razie widok powstaje na stercie
+        if (isSortedUndirected()) {
+            return this;
+        }
+        
+        int n = vertexCount;
+        boolean clean = rowPointer(0) == 0 && rowPointer(n) == storage.getAdjacencyLength();
+        
+        // Zlicz stopnie w obu kierunkach
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int i = getNeighborsStart(u); i < getNeighborsEnd(u); i++) {
+                int v = neighbor(i);
+                if (v < 0 || v >= n || v == u) {
+                    clean = false;
+                    continue;
+                }
+                degree[u]++;
+                degree[v]++;
+            }
+        }
+        
+        int[] viewRowPointers = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            viewRowPointers[u + 1] = viewRowPointers[u] + degree[u];
+        }
+        
+        // Rozrzuć krawędzie na listy obu końców
+        int[] fill = Arrays.copyOf(viewRowPointers, n);
+        int[] viewAdjacency = new int[viewRowPointers[n]];
+        for (int u = 0; u < n; u++) {
+            for (int i = getNeighborsStart(u); i < getNeighborsEnd(u); i++) {
+                int v = neighbor(i);
+                if (v < 0 || v >= n || v == u) {
+                    continue;
+                }
+                viewAdjacency[fill[u]++] = v;
+                viewAdjacency[fill[v]++] = u;
+            }
+        }
+        
+        // Posortuj listy sąsiadów i usuń duplikaty
+        int write = 0;
+        int rowStart = 0;
+        for (int u = 0; u < n; u++) {
+            int rowEnd = viewRowPointers[u + 1];
+            Arrays.sort(viewAdjacency, rowStart, rowEnd);
+            viewRowPointers[u] = write;
+            for (int i = rowStart; i < rowEnd; i++) {
+                if (i == rowStart || viewAdjacency[i] != viewAdjacency[i - 1]) {
+                    viewAdjacency[write++] = viewAdjacency[i];
+                }
+            }
+            rowStart = rowEnd;
+        }
+        viewRowPointers[n] = write;
+        
+        // Graf jest już nieskierowany, jeśli każdy wiersz pokrywa się z widokiem
+        int[] row = new int[0];
+        for (int u = 0; u < n && clean; u++) {
+            int start = getNeighborsStart(u);
+            int length = getDegree(u);
+            if (length != viewRowPointers[u + 1] - viewRowPointers[u]) {
+                clean = false;
+                break;
+            }
+            if (row.length < length) {
+                row = new int[length];
+            }
+            for (int i = 0; i < length; i++) {
+                row[i] = neighbor(start + i);
+            }
+            Arrays.sort(row, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (row[i] != viewAdjacency[viewRowPointers[u] + i]) {
+                    clean = false;
+                    break;
+                }
+            }
+        }
+        if (clean) {
+            return this;
+        }
+        
+        return new Graph(n, write / 2, viewRowPointers, Arrays.copyOf(viewAdjacency, write));
+    }
+    
+    /**
+     * Sprawdza bez alokacji, czy wiersze są ściśle rosnące (bez duplikatów), bez pętli
+     * i wpisów spoza zakresu, a każdy wpis u -> v ma wpis odwrotny (wyszukiwanie binarne w wierszu v)
+     */
+    private boolean isSortedUndirected() {
+        int n = vertexCount;
+        if (rowPointer(0) != 0 || rowPointer(n) != storage.getAdjacencyLength()) {
+            return false;
+        }
+        
+        for (int u = 0; u < n; u++) {
+            int start = rowPointer(u);
+            int end = rowPointer(u + 1);
+            if (end < start) {
+                return false;
+            }
+            int previous = -1;
+            for (int i = start; i < end; i++) {
+                int v = neighbor(i);
+                if (v <= previous || v >= n || v == u) {
+                    return false;
+                }
+                previous = v;
+            }
+        }
+        
+        for (int u = 0; u < n; u++) {
+            for (int i = rowPointer(u); i < rowPointer(u + 1); i++) {
+                if (!rowContains(neighbor(i), u)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Wyszukiwanie binarne w posortowanym wierszu wierzchołka u
+     */
+    private boolean rowContains(int u, int v) {
+        int low = rowPointer(u);
+        int high = rowPointer(u + 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = neighbor(mid);
+            if (value < v) {
+                low = mid + 1;
+            } else if (value > v) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     // Gettery
     public int getVertexCount() {
         return vertexCount;
@@ -67,14 +353,46 @@ public class Graph {
         return edgeCount;
     }
     
+    /**
+     * Zwraca tablicę wskaźników wierszy - tylko dla grafu na stercie
+     */
     public int[] getRowPointers() {
+        requireHeap();
         return rowPointers;
     }
     
+    /**
+     * Zwraca tablicę sąsiedztwa - tylko dla grafu na stercie
+     */
     public int[] getAdjacencyList() {
+        requireHeap();
         return adjacencyList;
     }
     
+    /**
+     * Zwraca długość listy sąsiedztwa
+     */
+    public int getAdjacencyLength() {
+        return storage.getAdjacencyLength();
+    }
+    
+    public CsrStorage getStorage() {
+        return storage;
+    }
+    
+    /**
+     * Czy tablice CSR grafu są przechowywane poza stertą
+     */
+    public boolean isOffHeap() {
+        return storage.isOffHeap();
+    }
+    
+    private void requireHeap() {
+        if (rowPointers == null) {
+            throw new UnsupportedOperationException("Graph arrays are stored off-heap");
+        }
+    }
+    
     /**
      * Oblicza gęstość grafu
      */
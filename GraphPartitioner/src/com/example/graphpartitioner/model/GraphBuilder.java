@@ -0,0 +1,389 @@
+package com.example.graphpartitioner.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Budowanie grafu CSR z krawędzi podawanych w dowolnej kolejności.
+ * Krawędzie mogą być dodawane jednocześnie z wielu wątków - każdy wątek
+ * zapisuje je do własnego bufora, a build() układa je w CSR równoległym
+ * dwuetapowym sortowaniem przez zliczanie (histogram, suma prefiksowa, rozrzucenie):
+ * najpierw do bloków kolejnych wierzchołków, potem w obrębie bloku na wiersze.
+ * Listy sąsiadów wynikowego grafu są posortowane rosnąco.
+ *
+ * Przykład:
+ * <pre>
+ * GraphBuilder builder = new GraphBuilder().symmetrize(true).removeSelfLoops(true).deduplicate(true);
+ * builder.addEdge(0, 1);
+ * Graph graph = builder.build();
+ * </pre>
+ */
+public final class GraphBuilder {
+    
+    /**
+     * Minimalna liczba krawędzi w jednym fragmencie przetwarzanym równolegle
+     */
+    private static final int MIN_CHUNK_EDGES = 1 << 16;
+    
+    /**
+     * Liczba fragmentów na wątek (wyrównuje nierówne tempo wątków)
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    /**
+     * Blok wierzchołków obejmuje co najmniej 2^MIN_BLOCK_SHIFT wierzchołków, a bloków jest mniej niż MAX_BLOCKS
+     */
+    private static final int MIN_BLOCK_SHIFT = 10;
+    private static final int MAX_BLOCKS = 1 << 16;
+    
+    private final int fixedVertexCount;  // -1 gdy liczba wierzchołków wynika z krawędzi
+    private boolean symmetrize;
+    private boolean removeSelfLoops;
+    private boolean deduplicate;
+    
+    private final List<EdgeBuffer> buffers = new ArrayList<>();
+    private final ThreadLocal<EdgeBuffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    private volatile boolean built;
+    
+    /**
+     * Tworzy budowniczego, dla którego liczba wierzchołków to największy numer wierzchołka + 1
+     */
+    public GraphBuilder() {
+        this.fixedVertexCount = -1;
+    }
+    
+    /**
+     * Tworzy budowniczego grafu o zadanej liczbie wierzchołków
+     * Krawędzie spoza zakresu [0, vertexCount) są odrzucane przez addEdge
+     */
+    public GraphBuilder(int vertexCount) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Vertex count must not be negative");
+        }
+        this.fixedVertexCount = vertexCount;
+    }
+    
+    /**
+     * Czy każda krawędź (u, v) ma trafić także na listę sąsiadów v
+     */
+    public GraphBuilder symmetrize(boolean symmetrize) {
+        this.symmetrize = symmetrize;
+        return this;
+    }
+    
+    /**
+     * Czy pomijać pętle własne (u, u)
+     */
+    public GraphBuilder removeSelfLoops(boolean removeSelfLoops) {
+        this.removeSelfLoops = removeSelfLoops;
+        return this;
+    }
+    
+    /**
+     * Czy usuwać powtórzone wpisy z list sąsiadów
+     */
+    public GraphBuilder deduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+        return this;
+    }
+    
+    /**
+     * Dodaje krawędź skierowaną (u, v); bezpieczne przy wywołaniach z wielu wątków
+     */
+    public void addEdge(int u, int v) {
+        if (u < 0 || v < 0 || (fixedVertexCount >= 0 && (u >= fixedVertexCount || v >= fixedVertexCount))) {
+            throw new IllegalArgumentException("Edge (" + u + ", " + v + ") out of vertex range");
+        }
+        if (built) {
+            throw new IllegalStateException("Graph has already been built");
+        }
+        localBuffer.get().add(u, v);
+    }
+    
+    private EdgeBuffer registerBuffer() {
+        EdgeBuffer buffer = new EdgeBuffer();
+        synchronized (buffers) {
+            buffers.add(buffer);
+        }
+        return buffer;
+    }
+    
+    /**
+     * Buduje graf z dodanych krawędzi; wątki dodające krawędzie muszą wcześniej zakończyć pracę
+     * Liczba krawędzi to liczba par {u, v} - para obecna w obu kierunkach liczy się raz
+     */
+    public Graph build() {
+        built = true;
+        EdgeBuffer[] sources;
+        synchronized (buffers) {
+            sources = buffers.toArray(new EdgeBuffer[0]);
+            buffers.clear();
+        }
+        
+        int n = fixedVertexCount;
+        long totalEdges = 0;
+        if (n < 0) {
+            n = 0;
+            for (EdgeBuffer buffer : sources) {
+                n = Math.max(n, buffer.maxVertex + 1);
+            }
+        }
+        for (EdgeBuffer buffer : sources) {
+            totalEdges += buffer.size;
+        }
+        
+        // Podział buforów na fragmenty o zbliżonej liczbie krawędzi
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        long chunkEdges = Math.max(MIN_CHUNK_EDGES, totalEdges / ((long) threads * CHUNKS_PER_THREAD) + 1);
+        List<Chunk> chunks = new ArrayList<>();
+        for (EdgeBuffer buffer : sources) {
+            for (int start = 0; start < buffer.size; start += chunkEdges) {
+                chunks.add(new Chunk(buffer, start, (int) Math.min(buffer.size, start + chunkEdges)));
+            }
+        }
+        
+        // Krawędzie są najpierw grupowane w bloki kolejnych wierzchołków, a dopiero potem
+        // rozkładane na wiersze w obrębie bloku - oba kroki bez operacji atomowych
+        int shift = MIN_BLOCK_SHIFT;
+        while ((n >>> shift) >= MAX_BLOCKS) {
+            shift++;
+        }
+        int blockShift = shift;
+        int blocks = (int) (((long) n + (1 << blockShift) - 1) >>> blockShift);
+        
+        // Histogram bloków w każdym fragmencie
+        int chunkCount = chunks.size();
+        int[][] positions = new int[chunkCount][blocks];
+        parallel(chunkCount, c -> {
+            int[] count = positions[c];
+            chunks.get(c).forEach((u, v) -> {
+                count[u >>> blockShift]++;
+                if (symmetrize && u != v) {
+                    count[v >>> blockShift]++;
+                }
+            });
+        });
+        
+        // Suma prefiksowa w kolejności (blok, fragment) wyznacza miejsce zapisu każdego fragmentu
+        int[] blockStarts = new int[blocks + 1];
+        long total = 0;
+        for (int b = 0; b < blocks; b++) {
+            blockStarts[b] = (int) total;
+            for (int c = 0; c < chunkCount; c++) {
+                int count = positions[c][b];
+                positions[c][b] = (int) total;
+                total += count;
+            }
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many adjacency entries for CSR arrays");
+            }
+        }
+        blockStarts[blocks] = (int) total;
+        
+        // Rozrzucenie krawędzi do bloków
+        int[] stagedSources = new int[(int) total];
+        int[] stagedTargets = new int[(int) total];
+        parallel(chunkCount, c -> {
+            int[] position = positions[c];
+            chunks.get(c).forEach((u, v) -> {
+                int p = position[u >>> blockShift]++;
+                stagedSources[p] = u;
+                stagedTargets[p] = v;
+                if (symmetrize && u != v) {
+                    p = position[v >>> blockShift]++;
+                    stagedSources[p] = v;
+                    stagedTargets[p] = u;
+                }
+            });
+        });
+        for (EdgeBuffer buffer : sources) {
+            buffer.release();
+        }
+        
+        // W obrębie bloku: stopnie, suma prefiksowa, rozrzucenie na wiersze i sortowanie wierszy
+        int vertexCount = n;
+        int[] rowPointers = new int[vertexCount + 1];
+        int[] adjacencyList = new int[(int) total];
+        parallel(blocks, b -> {
+            int first = b << blockShift;
+            int last = Math.min(vertexCount, first + (1 << blockShift));
+            int[] fill = new int[last - first];
+            for (int p = blockStarts[b]; p < blockStarts[b + 1]; p++) {
+                fill[stagedSources[p] - first]++;
+            }
+            int offset = blockStarts[b];
+            for (int u = first; u < last; u++) {
+                int degree = fill[u - first];
+                rowPointers[u] = offset;
+                fill[u - first] = offset;
+                offset += degree;
+            }
+            for (int p = blockStarts[b]; p < blockStarts[b + 1]; p++) {
+                adjacencyList[fill[stagedSources[p] - first]++] = stagedTargets[p];
+            }
+            for (int u = first; u < last; u++) {
+                Arrays.sort(adjacencyList, rowPointers[u], fill[u - first]);
+            }
+        });
+        rowPointers[vertexCount] = (int) total;
+        
+        int[] vertexBounds = splitVertices(rowPointers, vertexCount, threads * CHUNKS_PER_THREAD);
+        int vertexChunks = vertexBounds.length - 1;
+        
+        int[] resultRowPointers = rowPointers;
+        int[] resultAdjacency = adjacencyList;
+        if (removeSelfLoops || deduplicate) {
+            // Nowe stopnie wierszy, suma prefiksowa i równoległe przepisanie zachowanych wpisów
+            int[] kept = new int[vertexCount + 1];
+            parallel(vertexChunks, c -> {
+                for (int u = vertexBounds[c]; u < vertexBounds[c + 1]; u++) {
+                    kept[u + 1] = compactRow(adjacencyList, rowPointers[u], rowPointers[u + 1], u, null, 0);
+                }
+            });
+            for (int u = 0; u < vertexCount; u++) {
+                kept[u + 1] += kept[u];
+            }
+            
+            int[] compacted = new int[kept[vertexCount]];
+            parallel(vertexChunks, c -> {
+                for (int u = vertexBounds[c]; u < vertexBounds[c + 1]; u++) {
+                    compactRow(adjacencyList, rowPointers[u], rowPointers[u + 1], u, compacted, kept[u]);
+                }
+            });
+            resultRowPointers = kept;
+            resultAdjacency = compacted;
+        }
+        
+        Graph graph = new Graph(vertexCount, countEdges(resultRowPointers, resultAdjacency, vertexCount),
+                                resultRowPointers, resultAdjacency);
+        if (symmetrize && removeSelfLoops && deduplicate) {
+            graph.markUndirected();
+        }
+        return graph;
+    }
+    
+    /**
+     * Przepisuje posortowany wiersz bez pominiętych wpisów do target (gdy różne od null)
+     * Zwraca liczbę zachowanych wpisów
+     */
+    private int compactRow(int[] adjacency, int start, int end, int vertex, int[] target, int offset) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            int v = adjacency[i];
+            if ((removeSelfLoops && v == vertex) || (deduplicate && i > start && v == adjacency[i - 1])) {
+                continue;
+            }
+            if (target != null) {
+                target[offset + count] = v;
+            }
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Liczba krawędzi nieskierowanych: wpisy z v >= u oraz wpisy z v < u bez pary u na liście v
+     * Dzięki temu graf już symetryczny nie jest liczony podwójnie także bez symetryzacji
+     */
+    private int countEdges(int[] rowPointers, int[] adjacency, int n) {
+        return IntStream.range(0, n).parallel().map(u -> {
+            int count = 0;
+            for (int i = rowPointers[u]; i < rowPointers[u + 1]; i++) {
+                int v = adjacency[i];
+                // Po symetryzacji każda para {u, v} występuje na obu listach
+                if (v >= u || (!symmetrize && Arrays.binarySearch(adjacency, rowPointers[v], rowPointers[v + 1], u) < 0)) {
+                    count++;
+                }
+            }
+            return count;
+        }).sum();
+    }
+    
+    /**
+     * Dzieli wierzchołki na przedziały o zbliżonej liczbie wpisów sąsiedztwa
+     */
+    private static int[] splitVertices(int[] rowPointers, int n, int parts) {
+        long perPart = Math.max(MIN_CHUNK_EDGES, (long) rowPointers[n] / parts + 1);
+        int[] bounds = new int[parts + 2];
+        int count = 0;
+        long nextBoundary = perPart;
+        for (int u = 0; u < n; u++) {
+            if (rowPointers[u] >= nextBoundary && count < parts) {
+                bounds[++count] = u;
+                nextBoundary = rowPointers[u] + perPart;
+            }
+        }
+        bounds[++count] = n;
+        return Arrays.copyOf(bounds, count + 1);
+    }
+    
+    /**
+     * Wykonuje zadania 0..count-1 we wspólnej puli wątków (pojedyncze zadanie w bieżącym wątku)
+     */
+    private static void parallel(int count, IntConsumer task) {
+        if (count == 1) {
+            task.accept(0);
+        } else {
+            IntStream.range(0, count).parallel().forEach(task);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void accept(int u, int v);
+    }
+    
+    /**
+     * Bufor krawędzi jednego wątku: pary (u, v) zapisane kolejno w tablicy int[]
+     */
+    private static final class EdgeBuffer {
+        private int[] pairs = new int[32];
+        private int size;
+        private int maxVertex = -1;
+        
+        void add(int u, int v) {
+            if (2 * size + 2 > pairs.length) {
+                long grown = pairs.length + (pairs.length >> 1) + 2L;
+                if (grown > Integer.MAX_VALUE - 8) {
+                    throw new OutOfMemoryError("Edge buffer too large");
+                }
+                pairs = Arrays.copyOf(pairs, (int) grown & ~1);
+            }
+            pairs[2 * size] = u;
+            pairs[2 * size + 1] = v;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+        }
+        
+        void release() {
+            pairs = null;
+            size = 0;
+        }
+    }
+    
+    /**
+     * Fragment bufora krawędzi [start, end)
+     */
+    private static final class Chunk {
+        private final EdgeBuffer buffer;
+        private final int start;
+        private final int end;
+        
+        Chunk(EdgeBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+        
+        void forEach(EdgeConsumer action) {
+            int[] pairs = buffer.pairs;
+            for (int i = start; i < end; i++) {
+                action.accept(pairs[2 * i], pairs[2 * i + 1]);
+            }
+        }
+    }
+}
\ No newline at end of file
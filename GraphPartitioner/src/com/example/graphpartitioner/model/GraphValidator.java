@@ -0,0 +1,290 @@
+package com.example.graphpartitioner.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Sprawdzanie i normalizacja grafu po wczytaniu.
+ * Wiersze CSR są dzielone na przedziały sprawdzane równolegle: numery spoza zakresu,
+ * pętle własne, powtórzone wpisy, krawędzie bez pary w przeciwnym kierunku
+ * oraz zgodność zadeklarowanej liczby krawędzi z rzeczywistą.
+ * Graf po normalizacji jest nieskierowany, więc algorytmy nie muszą tego sprawdzać w pętlach.
+ */
+public final class GraphValidator {
+    
+    /**
+     * Poprawki wykonywane przez normalize; wpisy spoza zakresu są usuwane zawsze
+     */
+    public enum Fix {
+        SYMMETRIZE,
+        REMOVE_SELF_LOOPS,
+        REMOVE_DUPLICATES
+    }
+    
+    /**
+     * Liczba przedziałów wierszy na wątek (wyrównuje nierówne tempo wątków)
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    
+    /**
+     * Minimalna liczba wierszy w przedziale sprawdzanym równolegle
+     */
+    private static final int MIN_CHUNK_VERTICES = 4096;
+    
+    // Indeksy liczników w tablicy wyników jednego przedziału
+    private static final int OUT_OF_RANGE = 0;
+    private static final int SELF_LOOPS = 1;
+    private static final int DUPLICATES = 2;
+    private static final int ASYMMETRIC = 3;
+    private static final int SYMMETRIC = 4;
+    private static final int UNSORTED_ROWS = 5;
+    private static final int COUNTERS = 6;
+    
+    private GraphValidator() {
+    }
+    
+    /**
+     * Sprawdza graf równolegle i zwraca podsumowanie problemów
+     * Jeśli graf ma zbudowany indeks krawędzi, symetria jest sprawdzana przez hasEdge
+     */
+    public static Report validate(Graph graph) {
+        int n = graph.getVertexCount();
+        boolean indexed = graph.getEdgeIndex() != null;
+        int chunks = chunkCount(n);
+        long[][] counters = new long[chunks][COUNTERS];
+        
+        // Sprawdzenie kolejności wierszy decyduje, czy potrzebna jest posortowana kopia
+        forEachChunk(n, chunks, (c, first, last) -> {
+            for (int u = first; u < last; u++) {
+                for (int i = graph.getNeighborsStart(u) + 1; i < graph.getNeighborsEnd(u); i++) {
+                    if (graph.getNeighborAt(i - 1) > graph.getNeighborAt(i)) {
+                        counters[c][UNSORTED_ROWS]++;
+                        break;
+                    }
+                }
+            }
+        });
+        
+        long unsortedRows = 0;
+        for (long[] chunk : counters) {
+            unsortedRows += chunk[UNSORTED_ROWS];
+        }
+        int[] rows = unsortedRows > 0 ? sortedCopy(graph, chunks) : null;
+        
+        forEachChunk(n, chunks, (c, first, last) -> {
+            long[] count = counters[c];
+            for (int u = first; u < last; u++) {
+                int start = graph.getNeighborsStart(u);
+                int end = graph.getNeighborsEnd(u);
+                for (int i = start; i < end; i++) {
+                    int v = rows != null ? rows[i] : graph.getNeighborAt(i);
+                    if (v < 0 || v >= n) {
+                        count[OUT_OF_RANGE]++;
+                    } else if (v == u) {
+                        count[SELF_LOOPS]++;
+                    } else if (i > start && v == (rows != null ? rows[i - 1] : graph.getNeighborAt(i - 1))) {
+                        count[DUPLICATES]++;
+                    } else if (indexed ? graph.hasEdge(v, u) : containsSorted(graph, rows, v, u)) {
+                        count[SYMMETRIC]++;
+                    } else {
+                        count[ASYMMETRIC]++;
+                    }
+                }
+            }
+        });
+        
+        long[] total = new long[COUNTERS];
+        for (long[] chunk : counters) {
+            for (int k = 0; k < COUNTERS; k++) {
+                total[k] += chunk[k];
+            }
+        }
+        
+        // Każda para obecna w obu kierunkach jest liczona dwa razy, para jednokierunkowa raz
+        long undirectedEdges = total[SYMMETRIC] / 2 + total[ASYMMETRIC];
+        return new Report(n, graph.getAdjacencyLength(), graph.getEdgeCount(), undirectedEdges,
+                          total[OUT_OF_RANGE], total[SELF_LOOPS], total[DUPLICATES],
+                          total[ASYMMETRIC], total[UNSORTED_ROWS]);
+    }
+    
+    /**
+     * Naprawia wszystkie problemy: graf wynikowy jest nieskierowany, bez pętli i duplikatów
+     */
+    public static Graph normalize(Graph graph) {
+        return normalize(graph, EnumSet.allOf(Fix.class));
+    }
+    
+    /**
+     * Buduje graf z wybranymi poprawkami; wpisy spoza zakresu wierzchołków są zawsze odrzucane
+     * Krawędzie są przekazywane do GraphBuilder równolegle z przedziałów wierszy
+     */
+    public static Graph normalize(Graph graph, Set<Fix> fixes) {
+        int n = graph.getVertexCount();
+        GraphBuilder builder = new GraphBuilder(n)
+            .symmetrize(fixes.contains(Fix.SYMMETRIZE))
+            .removeSelfLoops(fixes.contains(Fix.REMOVE_SELF_LOOPS))
+            .deduplicate(fixes.contains(Fix.REMOVE_DUPLICATES));
+        
+        forEachChunk(n, chunkCount(n), (c, first, last) -> {
+            for (int u = first; u < last; u++) {
+                for (int i = graph.getNeighborsStart(u); i < graph.getNeighborsEnd(u); i++) {
+                    int v = graph.getNeighborAt(i);
+                    if (v >= 0 && v < n) {
+                        builder.addEdge(u, v);
+                    }
+                }
+            }
+        });
+        
+        return builder.build();
+    }
+    
+    /**
+     * Czy wiersz wierzchołka u (posortowany w rows lub w samym grafie) zawiera v
+     */
+    private static boolean containsSorted(Graph graph, int[] rows, int u, int v) {
+        int low = graph.getNeighborsStart(u);
+        int high = graph.getNeighborsEnd(u) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = rows != null ? rows[mid] : graph.getNeighborAt(mid);
+            if (value < v) {
+                low = mid + 1;
+            } else if (value > v) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int[] sortedCopy(Graph graph, int chunks) {
+        int[] rows = new int[graph.getAdjacencyLength()];
+        forEachChunk(graph.getVertexCount(), chunks, (c, first, last) -> {
+            for (int u = first; u < last; u++) {
+                int start = graph.getNeighborsStart(u);
+                int end = graph.getNeighborsEnd(u);
+                for (int i = start; i < end; i++) {
+                    rows[i] = graph.getNeighborAt(i);
+                }
+                Arrays.sort(rows, start, end);
+            }
+        });
+        return rows;
+    }
+    
+    private static int chunkCount(int n) {
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        return (int) Math.max(1, Math.min((long) threads * CHUNKS_PER_THREAD, n / MIN_CHUNK_VERTICES));
+    }
+    
+    /**
+     * Wywołuje zadanie dla przedziałów wierszy [first, last) we wspólnej puli wątków
+     */
+    private static void forEachChunk(int n, int chunks, ChunkTask task) {
+        IntStream indices = IntStream.range(0, chunks);
+        (chunks > 1 ? indices.parallel() : indices).forEach(c ->
+            task.run(c, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)));
+    }
+    
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int chunk, int first, int last);
+    }
+    
+    /**
+     * Podsumowanie sprawdzenia grafu
+     */
+    public static final class Report {
+        private final int vertexCount;
+        private final int entryCount;
+        private final int declaredEdgeCount;
+        private final long undirectedEdgeCount;
+        private final long outOfRangeEntries;
+        private final long selfLoops;
+        private final long duplicateEntries;
+        private final long asymmetricEntries;
+        private final long unsortedRows;
+        
+        Report(int vertexCount, int entryCount, int declaredEdgeCount, long undirectedEdgeCount,
+               long outOfRangeEntries, long selfLoops, long duplicateEntries,
+               long asymmetricEntries, long unsortedRows) {
+            this.vertexCount = vertexCount;
+            this.entryCount = entryCount;
+            this.declaredEdgeCount = declaredEdgeCount;
+            this.undirectedEdgeCount = undirectedEdgeCount;
+            this.outOfRangeEntries = outOfRangeEntries;
+            this.selfLoops = selfLoops;
+            this.duplicateEntries = duplicateEntries;
+            this.asymmetricEntries = asymmetricEntries;
+            this.unsortedRows = unsortedRows;
+        }
+        
+        /**
+         * Czy graf jest już nieskierowany, bez pętli i duplikatów, z poprawną liczbą krawędzi
+         * Nieposortowane wiersze nie są błędem
+         */
+        public boolean isClean() {
+            return outOfRangeEntries == 0 && selfLoops == 0 && duplicateEntries == 0 &&
+                   asymmetricEntries == 0 && declaredEdgeCount == undirectedEdgeCount;
+        }
+        
+        // Gettery
+        public int getVertexCount() {
+            return vertexCount;
+        }
+        
+        public int getEntryCount() {
+            return entryCount;
+        }
+        
+        public int getDeclaredEdgeCount() {
+            return declaredEdgeCount;
+        }
+        
+        /**
+         * Liczba różnych par {u, v} w zakresie wierzchołków, bez pętli własnych
+         */
+        public long getUndirectedEdgeCount() {
+            return undirectedEdgeCount;
+        }
+        
+        public long getOutOfRangeEntries() {
+            return outOfRangeEntries;
+        }
+        
+        public long getSelfLoops() {
+            return selfLoops;
+        }
+        
+        public long getDuplicateEntries() {
+            return duplicateEntries;
+        }
+        
+        /**
+         * Liczba wpisów u -> v, dla których brak wpisu v -> u
+         */
+        public long getAsymmetricEntries() {
+            return asymmetricEntries;
+        }
+        
+        public long getUnsortedRows() {
+            return unsortedRows;
+        }
+        
+        @Override
+        public String toString() {
+            return "Wierzchołki: " + vertexCount + ", wpisy sąsiedztwa: " + entryCount + "\n" +
+                   "Krawędzie: zadeklarowane " + declaredEdgeCount + ", rzeczywiste " + undirectedEdgeCount + "\n" +
+                   "Wpisy spoza zakresu: " + outOfRangeEntries + "\n" +
+                   "Pętle własne: " + selfLoops + "\n" +
+                   "Duplikaty: " + duplicateEntries + "\n" +
+                   "Krawędzie bez pary w przeciwnym kierunku: " + asymmetricEntries + "\n" +
+                   "Nieposortowane wiersze: " + unsortedRows;
+        }
+    }
+}
\ No newline at end of file
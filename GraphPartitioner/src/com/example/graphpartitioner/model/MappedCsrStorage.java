@@ -0,0 +1,40 @@
+package com.example.graphpartitioner.model;
+
+/**
+ * Tablice CSR zmapowane z pliku do pamięci poza stertą
+ * Sterta nie ogranicza rozmiaru grafu, a dane nie obciążają odśmiecacza
+ */
+public final class MappedCsrStorage implements CsrStorage {
+    private final MappedIntArray rowPointers;
+    private final MappedIntArray adjacencyList;
+    
+    public MappedCsrStorage(MappedIntArray rowPointers, MappedIntArray adjacencyList) {
+        this.rowPointers = rowPointers;
+        this.adjacencyList = adjacencyList;
+    }
+    
+    @Override
+    public int getRowPointer(int index) {
+        return rowPointers.get(index);
+    }
+    
+    @Override
+    public int getNeighborAt(int offset) {
+        return adjacencyList.get(offset);
+    }
+    
+    @Override
+    public int getRowPointerCount() {
+        return rowPointers.length();
+    }
+    
+    @Override
+    public int getAdjacencyLength() {
+        return adjacencyList.length();
+    }
+    
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.example.graphpartitioner.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Tablica liczb int (little-endian) zmapowana z pliku do pamięci poza stertą.
+ * Pojedyncze mapowanie jest ograniczone do 2 GB, dlatego dłuższe tablice
+ * są dzielone na segmenty po SEGMENT_SIZE liczb.
+ */
+public final class MappedIntArray {
+    
+    private static final int SEGMENT_SHIFT = 28;
+    
+    /**
+     * Liczba wartości w jednym segmencie (1 GB)
+     */
+    public static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    
+    private final ByteBuffer[] byteSegments;
+    private final IntBuffer[] segments;
+    private final int length;
+    
+    private MappedIntArray(ByteBuffer[] byteSegments, int length) {
+        this.byteSegments = byteSegments;
+        this.segments = new IntBuffer[byteSegments.length];
+        this.length = length;
+        for (int s = 0; s < byteSegments.length; s++) {
+            segments[s] = byteSegments[s].asIntBuffer();
+        }
+    }
+    
+    /**
+     * Mapuje tylko do odczytu length liczb zaczynających się od bajtu offset pliku
+     */
+    public static MappedIntArray map(FileChannel channel, long offset, int length) throws IOException {
+        int segmentCount = Math.max(1, (int) (((long) length + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT));
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        
+        for (int s = 0; s < segmentCount; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            int count = (int) Math.min(SEGMENT_SIZE, length - first);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * 4, (long) count * 4)
+                                 .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new MappedIntArray(segments, length);
+    }
+    
+    public int get(int index) {
+        return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+    }
+    
+    public int length() {
+        return length;
+    }
+    
+    /**
+     * Zwraca liczbę segmentów (pojedynczych mapowań)
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+    
+    /**
+     * Zwraca widok jednego segmentu tylko do odczytu
+     */
+    public IntBuffer getSegment(int segment) {
+        return segments[segment].asReadOnlyBuffer();
+    }
+    
+    /**
+     * Zwraca surowe bajty jednego segmentu tylko do odczytu (np. do liczenia sumy kontrolnej)
+     */
+    public ByteBuffer getSegmentBytes(int segment) {
+        return byteSegments[segment].asReadOnlyBuffer();
+    }
+    
+    /**
+     * Kopiuje całą tablicę na stertę
+     */
+    public int[] toArray() {
+        int[] values = new int[length];
+        int offset = 0;
+        for (IntBuffer segment : segments) {
+            IntBuffer source = segment.duplicate();
+            int count = source.remaining();
+            source.get(values, offset, count);
+            offset += count;
+        }
+        return values;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.example.graphpartitioner.model;
+
+import com.example.graphpartitioner.utils.IndexedIntSet;
+
+import java.util.Arrays;
+
+/**
+ * Rzadka tablica połączeń wierzchołek-część.
+ * Dla każdego wierzchołka przechowuje liczbę jego sąsiadów w każdej części,
+ * z którą faktycznie sąsiaduje. Wierzchołek v ma min(deg(v), liczba części) wpisów,
+ * bo różnych sąsiednich części nie może być więcej - dla małego k pamięć rośnie
+ * z liczbą wierzchołków, a nie z długością listy sąsiedztwa (grafu poza stertą nie kopiuje się).
+ * Przeniesienie wierzchołka aktualizuje tablicę w O(deg).
+ * Razem z tablicą utrzymywany jest zbiór wierzchołków granicznych,
+ * czyli takich, które mają sąsiada w innej części, oraz liczba przeciętych
+ * krawędzi wraz z macierzą k×k przeciętych krawędzi między parami części.
+ */
+public class PartConnectivity {
+    private final Graph view;            // Widok nieskierowany (na stercie lub poza nią)
+    private final int[] slotStarts;      // Początek wpisów wierzchołka w parts i counts
+    private final int[] parts;           // Części sąsiadujące z wierzchołkiem
+    private final int[] counts;          // Liczba sąsiadów w odpowiadającej części
+    private final int[] used;            // Liczba zajętych wpisów wierzchołka
+    private final int[] assignments;     // Przypisania podziału, do którego należy tablica
+    private final IndexedIntSet boundary; // Wierzchołki graniczne
+    private final int numParts;          // Liczba części
+    private final int[] cutMatrix;       // Przecięte krawędzie między częściami a i b pod indeksem a * numParts + b
+    private int cutEdges;                // Liczba przeciętych krawędzi
+    
+    /**
+     * Buduje tablicę dla bieżących przypisań (-1 oznacza wierzchołek nieprzypisany)
+     */
+    public PartConnectivity(Graph graph, int[] assignments, int numParts) {
+        this.view = graph.getUndirectedView();
+        int n = view.getVertexCount();
+        this.slotStarts = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            slotStarts[v + 1] = slotStarts[v] + Math.min(view.getDegree(v), numParts);
+        }
+        this.parts = new int[slotStarts[n]];
+        this.counts = new int[slotStarts[n]];
+        this.used = new int[n];
+        this.assignments = assignments;
+        this.boundary = new IndexedIntSet(used.length);
+        this.numParts = numParts;
+        this.cutMatrix = new int[numParts * numParts];
+        
+        int cutEndpoints = 0;
+        for (int v = 0; v < used.length; v++) {
+            for (int i = view.getNeighborsStart(v); i < view.getNeighborsEnd(v); i++) {
+                int part = assignments[view.getNeighborAt(i)];
+                if (part >= 0) {
+                    increment(v, part);
+                }
+            }
+            updateBoundary(v);
+            
+            // Każda przecięta krawędź jest widziana z obu końców
+            int ownPart = assignments[v];
+            if (ownPart >= 0) {
+                int start = slotStarts[v];
+                for (int i = start; i < start + used[v]; i++) {
+                    if (parts[i] != ownPart) {
+                        cutMatrix[ownPart * numParts + parts[i]] += counts[i];
+                        cutEndpoints += counts[i];
+                    }
+                }
+            }
+        }
+        this.cutEdges = cutEndpoints / 2;
+    }
+    
+    private PartConnectivity(PartConnectivity other, int[] assignments) {
+        this.view = other.view;
+        this.slotStarts = other.slotStarts;
+        this.parts = Arrays.copyOf(other.parts, other.parts.length);
+        this.counts = Arrays.copyOf(other.counts, other.counts.length);
+        this.used = Arrays.copyOf(other.used, other.used.length);
+        this.assignments = assignments;
+        this.boundary = other.boundary.copy();
+        this.numParts = other.numParts;
+        this.cutMatrix = Arrays.copyOf(other.cutMatrix, other.cutMatrix.length);
+        this.cutEdges = other.cutEdges;
+    }
+    
+    /**
+     * Zwraca liczbę sąsiadów wierzchołka w danej części
+     */
+    public int countNeighbors(int vertex, int part) {
+        int start = slotStarts[vertex];
+        int end = start + used[vertex];
+        
+        for (int i = start; i < end; i++) {
+            if (parts[i] == part) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Zwraca liczbę różnych części, w których wierzchołek ma sąsiadów
+     */
+    public int getAdjacentPartCount(int vertex) {
+        return used[vertex];
+    }
+    
+    /**
+     * Zwraca i-tą część sąsiadującą z wierzchołkiem
+     */
+    public int getAdjacentPart(int vertex, int index) {
+        return parts[slotStarts[vertex] + index];
+    }
+    
+    /**
+     * Zwraca liczbę sąsiadów wierzchołka w i-tej sąsiadującej części
+     */
+    public int getNeighborCount(int vertex, int index) {
+        return counts[slotStarts[vertex] + index];
+    }
+    
+    /**
+     * Zwraca zbiór wierzchołków granicznych (tylko do odczytu)
+     */
+    public IndexedIntSet getBoundary() {
+        return boundary;
+    }
+    
+    /**
+     * Zwraca liczbę przeciętych krawędzi
+     */
+    public int getCutEdges() {
+        return cutEdges;
+    }
+    
+    /**
+     * Zwraca liczbę przeciętych krawędzi między dwiema różnymi częściami
+     */
+    public int getCutEdgesBetween(int partA, int partB) {
+        return cutMatrix[partA * numParts + partB];
+    }
+    
+    /**
+     * Sprawdza czy wierzchołek ma sąsiada w innej części niż własna
+     */
+    public boolean isBoundary(int vertex) {
+        return boundary.contains(vertex);
+    }
+    
+    /**
+     * Aktualizuje liczniki sąsiadów i zbiór graniczny po przeniesieniu wierzchołka
+     * (wywoływane po zapisaniu nowego przypisania)
+     */
+    void moveVertex(int vertex, int oldPart, int newPart) {
+        // Wpisy przenoszonego wierzchołka się nie zmieniają - krawędzie do każdej
+        // sąsiedniej części przechodzą z pary (oldPart, część) do pary (newPart, część)
+        int start = slotStarts[vertex];
+        for (int i = start; i < start + used[vertex]; i++) {
+            int part = parts[i];
+            int count = counts[i];
+            if (oldPart >= 0 && part != oldPart) {
+                cutMatrix[oldPart * numParts + part] -= count;
+                cutMatrix[part * numParts + oldPart] -= count;
+                cutEdges -= count;
+            }
+            if (part != newPart) {
+                cutMatrix[newPart * numParts + part] += count;
+                cutMatrix[part * numParts + newPart] += count;
+                cutEdges += count;
+            }
+        }
+        
+        for (int i = view.getNeighborsStart(vertex); i < view.getNeighborsEnd(vertex); i++) {
+            int neighbor = view.getNeighborAt(i);
+            if (oldPart >= 0) {
+                decrement(neighbor, oldPart);
+            }
+            increment(neighbor, newPart);
+            updateBoundary(neighbor);
+        }
+        updateBoundary(vertex);
+    }
+    
+    private void updateBoundary(int vertex) {
+        int part = assignments[vertex];
+        int start = slotStarts[vertex];
+        boolean isBoundary = part >= 0 &&
+            (used[vertex] > 1 || (used[vertex] == 1 && parts[start] != part));
+        
+        if (isBoundary) {
+            boundary.add(vertex);
+        } else {
+            boundary.remove(vertex);
+        }
+    }
+    
+    private void increment(int vertex, int part) {
+        int start = slotStarts[vertex];
+        int end = start + used[vertex];
+        
+        for (int i = start; i < end; i++) {
+            if (parts[i] == part) {
+                counts[i]++;
+                return;
+            }
+        }
+        
+        parts[end] = part;
+        counts[end] = 1;
+        used[vertex]++;
+    }
+    
+    private void decrement(int vertex, int part) {
+        int start = slotStarts[vertex];
+        int last = start + used[vertex] - 1;
+        
+        for (int i = start; i <= last; i++) {
+            if (parts[i] == part) {
+                if (--counts[i] == 0) {
+                    // Usuń wpis, przenosząc na jego miejsce ostatni
+                    parts[i] = parts[last];
+                    counts[i] = counts[last];
+                    used[vertex]--;
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Tworzy głęboką kopię tablicy dla kopii przypisań
+     */
+    PartConnectivity copy(int[] copiedAssignments) {
+        return new PartConnectivity(this, copiedAssignments);
+    }
+}
\ No newline at end of file
@@ -11,6 +11,7 @@ public class Partition {
     private final int partCount;         // Liczba części
     private int cutEdges;                // Liczba przeciętych krawędzi
     private final int marginPercent;     // Maksymalny dozwolony margines procentowy
+    private PartConnectivity connectivity; // Liczniki sąsiadów w częściach (opcjonalne)
     
     /**
      * Konstruktor dla nowego, pustego podziału
@@ -26,6 +27,15 @@ public class Partition {
         Arrays.fill(assignments, -1);
     }
     
+    /**
+     * Konstruktor podziału świadomego grafu - liczba przeciętych krawędzi
+     * jest aktualizowana przy każdym przeniesieniu wierzchołka
+     */
+    public Partition(Graph graph, int partCount, int marginPercent) {
+        this(partCount, graph.getVertexCount(), marginPercent);
+        enableConnectivity(graph);
+    }
+    
     /**
      * Konstruktor z pełnymi danymi
      */
@@ -64,6 +74,24 @@ public class Partition {
         partSizes[partId]++;
         
         assignments[vertex] = partId;
+        
+        if (connectivity != null && oldPartId != partId) {
+            connectivity.moveVertex(vertex, oldPartId, partId);
+        }
+    }
+    
+    /**
+     * Włącza śledzenie liczby sąsiadów wierzchołków w częściach dla danego grafu
+     */
+    public void enableConnectivity(Graph graph) {
+        connectivity = new PartConnectivity(graph, assignments, partCount);
+    }
+    
+    /**
+     * Zwraca tablicę połączeń lub null, jeśli śledzenie nie jest włączone
+     */
+    public PartConnectivity getConnectivity() {
+        return connectivity;
     }
     
     /**
@@ -72,7 +100,11 @@ public class Partition {
     public Partition copy(int numVertices) {
         int[] newAssignments = Arrays.copyOf(assignments, numVertices);
         int[] newPartSizes = Arrays.copyOf(partSizes, partCount);
-        return new Partition(newAssignments, newPartSizes, partCount, cutEdges, marginPercent);
+        Partition result = new Partition(newAssignments, newPartSizes, partCount, getCutEdges(), marginPercent);
+        if (connectivity != null && numVertices == assignments.length) {
+            result.connectivity = connectivity.copy(newAssignments);
+        }
+        return result;
     }
     
     /**
@@ -104,14 +136,30 @@ public class Partition {
         return partSizes;
     }
     
+    /**
+     * Przy włączonym śledzeniu połączeń liczba jest utrzymywana przyrostowo i zawsze dokładna
+     */
     public int getCutEdges() {
-        return cutEdges;
+        return connectivity != null ? connectivity.getCutEdges() : cutEdges;
     }
     
+    /**
+     * Ustawia liczbę przeciętych krawędzi dla podziału bez śledzenia połączeń
+     */
     public void setCutEdges(int cutEdges) {
         this.cutEdges = cutEdges;
     }
     
+    /**
+     * Zwraca liczbę przeciętych krawędzi między dwiema różnymi częściami
+     */
+    public int getCutEdgesBetween(int partA, int partB) {
+        if (connectivity == null) {
+            throw new IllegalStateException("Connectivity tracking is not enabled");
+        }
+        return connectivity.getCutEdgesBetween(partA, partB);
+    }
+    
     public int getMarginPercent() {
         return marginPercent;
     }
@@ -0,0 +1,154 @@
+package com.example.graphpartitioner.model;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Wyodrębnianie podgrafów indukowanych przez części podziału.
+ * Wierzchołki są grupowane według części sortowaniem przez zliczanie, a jedna tablica
+ * localIndex (numer wierzchołka w jego części) służy wszystkim częściom, więc podgrafy
+ * mogą być budowane niezależnie i równolegle.
+ */
+public final class SubgraphExtractor {
+    
+    /**
+     * Liczba podgrafów budowanych z wyprzedzeniem na wątek przy przekazywaniu części po kolei
+     */
+    private static final int LOOKAHEAD_PER_THREAD = 2;
+    
+    private final Graph graph;
+    private final int[] assignments;   // Część każdego wierzchołka grafu (-1 gdy spoza zakresu części)
+    private final int partCount;
+    private final int[] partStarts;    // Początek części p w partVertices
+    private final int[] partVertices;  // Wierzchołki pogrupowane według części, rosnąco w obrębie części
+    private final int[] localIndex;    // Numer wierzchołka w podgrafie jego części
+    
+    public SubgraphExtractor(Graph graph, Partition partition) {
+        this.graph = graph;
+        this.partCount = partition.getPartCount();
+        
+        int n = graph.getVertexCount();
+        this.assignments = new int[n];
+        this.partStarts = new int[partCount + 1];
+        for (int v = 0; v < n; v++) {
+            int part = partition.getAssignment(v);
+            if (part < 0 || part >= partCount) {
+                part = -1;
+            } else {
+                partStarts[part + 1]++;
+            }
+            assignments[v] = part;
+        }
+        for (int p = 0; p < partCount; p++) {
+            partStarts[p + 1] += partStarts[p];
+        }
+        
+        this.partVertices = new int[partStarts[partCount]];
+        this.localIndex = new int[n];
+        int[] fill = Arrays.copyOf(partStarts, partCount);
+        for (int v = 0; v < n; v++) {
+            int part = assignments[v];
+            if (part >= 0) {
+                localIndex[v] = fill[part] - partStarts[part];
+                partVertices[fill[part]++] = v;
+            }
+        }
+    }
+    
+    /**
+     * Buduje podgraf indukowany części w numeracji lokalnej (kolejność wierzchołków jak w getPartVertices)
+     * Kolejność sąsiadów odpowiada kolejności w grafie; pomijani są sąsiedzi z innych części i spoza zakresu
+     */
+    public Graph extract(int part) {
+        int first = partStarts[part];
+        int size = partStarts[part + 1] - first;
+        int n = assignments.length;
+        
+        int[] rowPointers = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            int v = partVertices[first + i];
+            int degree = 0;
+            for (int j = graph.getNeighborsStart(v); j < graph.getNeighborsEnd(v); j++) {
+                int neighbor = graph.getNeighborAt(j);
+                if (neighbor >= 0 && neighbor < n && assignments[neighbor] == part) {
+                    degree++;
+                }
+            }
+            rowPointers[i + 1] = rowPointers[i] + degree;
+        }
+        
+        int[] adjacencyList = new int[rowPointers[size]];
+        int write = 0;
+        for (int i = 0; i < size; i++) {
+            int v = partVertices[first + i];
+            for (int j = graph.getNeighborsStart(v); j < graph.getNeighborsEnd(v); j++) {
+                int neighbor = graph.getNeighborAt(j);
+                if (neighbor >= 0 && neighbor < n && assignments[neighbor] == part) {
+                    adjacencyList[write++] = localIndex[neighbor];
+                }
+            }
+        }
+        
+        return new Graph(size, adjacencyList.length / 2, rowPointers, adjacencyList);
+    }
+    
+    /**
+     * Przekazuje podgrafy wszystkich części po kolei, budując kolejne z wyprzedzeniem we wspólnej puli wątków
+     * Liczba zbudowanych, a jeszcze nieprzekazanych podgrafów jest ograniczona
+     */
+    public void forEachPart(PartConsumer action) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int lookahead = Math.max(1, pool.getParallelism() * LOOKAHEAD_PER_THREAD);
+        Deque<ForkJoinTask<Graph>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        
+        try {
+            for (int p = 0; p < partCount; p++) {
+                while (submitted < partCount && submitted - p < lookahead) {
+                    int part = submitted++;
+                    pending.addLast(pool.submit(() -> extract(part)));
+                }
+                action.accept(p, pending.removeFirst().join());
+            }
+        } finally {
+            for (ForkJoinTask<Graph> task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
+    
+    /**
+     * Odbiorca kolejnych podgrafów części
+     */
+    @FunctionalInterface
+    public interface PartConsumer {
+        void accept(int part, Graph subgraph) throws IOException;
+    }
+    
+    // Gettery
+    public int getPartCount() {
+        return partCount;
+    }
+    
+    /**
+     * Zwraca początki części w tablicy getPartVertices (partCount + 1 wartości)
+     */
+    public int[] getPartStarts() {
+        return partStarts;
+    }
+    
+    /**
+     * Zwraca wierzchołki pogrupowane według części
+     */
+    public int[] getPartVertices() {
+        return partVertices;
+    }
+    
+    public int getPartSize(int part) {
+        return partStarts[part + 1] - partStarts[part];
+    }
+}
\ No newline at end of file
@@ -178,14 +178,12 @@ public class GraphPanel extends JPanel {
      * Rysuje krawędzie grafu
      */
     private void drawEdges(Graphics2D g2d) {
-        Set<String> drawnEdges = new HashSet<>();
-        
         for (int u = 0; u < graph.getVertexCount(); u++) {
             Point2DDouble posU = vertexPositions.get(u);
             if (posU == null) continue;
             
-            List<Integer> neighbors = graph.getNeighbors(u);
-            for (int v : neighbors) {
+            for (int i = graph.getNeighborsStart(u); i < graph.getNeighborsEnd(u); i++) {
+                int v = graph.getNeighborAt(i);
                 if (u < v) { // Rysuj każdą krawędź tylko raz
                     Point2DDouble posV = vertexPositions.get(v);
                     if (posV == null) continue;
@@ -266,7 +264,8 @@ public class GraphPanel extends JPanel {
         int y = 20;
         g2d.drawString("Wierzchołki: " + graph.getVertexCount(), 10, y);
         y += 15;
-        g2d.drawString("Krawędzie: " + graph.getEdgeCount(), 10, y);
+        // Liczba krawędzi widoku nieskierowanego - tej samej podstawy używa liczenie przeciętych krawędzi
+        g2d.drawString("Krawędzie: " + graph.getUndirectedView().getEdgeCount(), 10, y);
         
         if (partition != null) {
             y += 15;
@@ -1,6 +1,7 @@
 package com.example.graphpartitioner.ui;
 
 import com.example.graphpartitioner.model.Graph;
+import com.example.graphpartitioner.model.GraphValidator;
 import com.example.graphpartitioner.model.Partition;
 import com.example.graphpartitioner.io.*;
 import com.example.graphpartitioner.utils.Pair;
@@ -23,6 +24,8 @@ public class MainFrame extends JFrame {
     
     private JLabel statusLabel;
     private JFileChooser fileChooser;
+    private JCheckBoxMenuItem validateOnLoad;
+    private JCheckBoxMenuItem indexEdgesOnLoad;
     
     public MainFrame() {
         initializeComponents();
@@ -76,6 +79,18 @@ public class MainFrame extends JFrame {
         loadCSRRG.addActionListener(e -> loadCSRRGGraph());
         fileMenu.add(loadCSRRG);
         
+        JMenuItem loadCsrrgPart = new JMenuItem("Wczytaj podgraf części z CSRRG...");
+        loadCsrrgPart.addActionListener(e -> loadCsrrgPartSubgraph());
+        fileMenu.add(loadCsrrgPart);
+        
+        JMenuItem loadBinaryGraph = new JMenuItem("Wczytaj binarny CSR...");
+        loadBinaryGraph.addActionListener(e -> loadBinaryGraph());
+        fileMenu.add(loadBinaryGraph);
+        
+        JMenuItem loadEdgeList = new JMenuItem("Wczytaj listę krawędzi...");
+        loadEdgeList.addActionListener(e -> loadEdgeListGraph());
+        fileMenu.add(loadEdgeList);
+        
         JMenuItem loadSimpleText = new JMenuItem("Wczytaj proste przypisanie (tekst)...");
         loadSimpleText.addActionListener(e -> loadSimpleAssignmentText());
         fileMenu.add(loadSimpleText);
@@ -84,6 +99,22 @@ public class MainFrame extends JFrame {
         loadSimpleBinary.addActionListener(e -> loadSimpleAssignmentBinary());
         fileMenu.add(loadSimpleBinary);
         
+        JMenuItem loadPacked = new JMenuItem("Wczytaj spakowane przypisanie...");
+        loadPacked.addActionListener(e -> loadPackedAssignment());
+        fileMenu.add(loadPacked);
+        
+        JMenuItem applyAssignment = new JMenuItem("Nałóż przypisanie na bieżący graf...");
+        applyAssignment.addActionListener(e -> applyAssignmentToCurrentGraph());
+        fileMenu.add(applyAssignment);
+        
+        validateOnLoad = new JCheckBoxMenuItem("Sprawdzaj i naprawiaj graf po wczytaniu");
+        validateOnLoad.setToolTipText("Usuwa wpisy spoza zakresu, pętle i duplikaty oraz uzupełnia brakujące kierunki krawędzi");
+        fileMenu.add(validateOnLoad);
+        
+        indexEdgesOnLoad = new JCheckBoxMenuItem("Buduj indeks krawędzi po wczytaniu");
+        indexEdgesOnLoad.setToolTipText("Przyspiesza sprawdzanie krawędzi (hasEdge) i scala powtórzone wpisy list sąsiadów");
+        fileMenu.add(indexEdgesOnLoad);
+        
         fileMenu.addSeparator();
         
         // Opcje zapisywania
@@ -95,6 +126,18 @@ public class MainFrame extends JFrame {
         saveAsCSRRG.addActionListener(e -> savePartitionAsCSRRG());
         fileMenu.add(saveAsCSRRG);
         
+        JMenuItem saveAsPacked = new JMenuItem("Zapisz podział jako spakowane przypisanie...");
+        saveAsPacked.addActionListener(e -> savePartitionAsPacked());
+        fileMenu.add(saveAsPacked);
+        
+        JMenuItem saveGraphBinary = new JMenuItem("Zapisz graf jako binarny CSR...");
+        saveGraphBinary.addActionListener(e -> saveGraphAsBinary(false));
+        fileMenu.add(saveGraphBinary);
+        
+        JMenuItem saveGraphCompressed = new JMenuItem("Zapisz graf jako skompresowany binarny CSR...");
+        saveGraphCompressed.addActionListener(e -> saveGraphAsBinary(true));
+        fileMenu.add(saveGraphCompressed);
+        
         fileMenu.addSeparator();
         
         JMenuItem exitItem = new JMenuItem("Wyjście");
@@ -140,19 +183,19 @@ public class MainFrame extends JFrame {
                 statusLabel.setText("Wczytywanie grafu z " + file.getName() + "...");
                 Pair<Graph, Partition> result = GraphLoader.loadGraphFromAdjacencyMatrixText(file.getAbsolutePath());
                 
-                currentGraph = result.getFirst();
+                currentGraph = checkLoadedGraph(result.getFirst());
                 currentPartition = result.getSecond();
                 loadedCsrrgData = null;
                 
                 displayGraphAndPartition(currentGraph, currentPartition);
                 
                 String message = "Wczytano graf: " + currentGraph.getVertexCount() + " wierzchołków, " +
-                               currentGraph.getEdgeCount() + " krawędzi";
+                               currentGraph.getUndirectedView().getEdgeCount() + " krawędzi";
                 if (currentPartition != null) {
                     message += ", " + currentPartition.getPartCount() + " części";
                 }
                 statusLabel.setText(message);
-                
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd wczytywania pliku: " + ex.getMessage(), 
@@ -173,15 +216,131 @@ public class MainFrame extends JFrame {
                 statusLabel.setText("Wczytywanie grafu CSRRG z " + file.getName() + "...");
                 Pair<Graph, CsrrgDataHolder> result = GraphLoader.loadGraphFromCsrrgText(file.getAbsolutePath());
                 
-                currentGraph = result.getFirst();
+                currentGraph = checkLoadedGraph(result.getFirst());
                 currentPartition = null;
                 loadedCsrrgData = result.getSecond();
                 
                 displayGraphAndPartition(currentGraph, currentPartition);
                 
                 statusLabel.setText("Wczytano graf CSRRG: " + currentGraph.getVertexCount() + 
-                                  " wierzchołków, " + currentGraph.getEdgeCount() + " krawędzi");
+                                  " wierzchołków, " + currentGraph.getUndirectedView().getEdgeCount() + " krawędzi");
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd wczytywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd wczytywania pliku");
+            }
+        }
+    }
+    
+    /**
+     * Wczytuje tylko sekcję podgrafu jednej części z pliku wynikowego CSRRG (linie 6+)
+     * Granice linii pochodzą z indeksu zapisanego obok pliku, więc pozostałe sekcje nie są parsowane
+     */
+    private void loadCsrrgPartSubgraph() {
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Pliki CSRRG", "csrrg", "txt"));
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            try {
+                CsrrgSections sections = GraphLoader.openCsrrgSections(file.getAbsolutePath());
+                int partCount = sections.getPartCount();
+                if (partCount == 0) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Plik nie zawiera podgrafów części.", 
+                        "Brak podgrafów", 
+                        JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                
+                String input = JOptionPane.showInputDialog(this, 
+                    "Numer części (0-" + (partCount - 1) + "):", "0");
+                if (input == null) {
+                    return;
+                }
+                int part;
+                try {
+                    part = Integer.parseInt(input.trim());
+                } catch (NumberFormatException ex) {
+                    part = -1;
+                }
+                if (part < 0 || part >= partCount) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Nieprawidłowy numer części: " + input, 
+                        "Błąd", 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                statusLabel.setText("Wczytywanie podgrafu części " + part + " z " + file.getName() + "...");
+                currentGraph = checkLoadedGraph(sections.readPartSubgraph(part));
+                currentPartition = null;
+                loadedCsrrgData = null;
+                
+                displayGraphAndPartition(currentGraph, currentPartition);
+                
+                statusLabel.setText("Wczytano podgraf części " + part + ": " + currentGraph.getVertexCount() + 
+                                  " wierzchołków, " + currentGraph.getUndirectedView().getEdgeCount() + " krawędzi");
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd wczytywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd wczytywania pliku");
+            }
+        }
+    }
+    
+    private void loadBinaryGraph() {
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Pliki binarne CSR", BinaryGraphFile.EXTENSION));
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            try {
+                statusLabel.setText("Wczytywanie binarnego grafu z " + file.getName() + "...");
+                Pair<Graph, CsrrgDataHolder> result = GraphLoader.loadGraphFromBinary(file.getAbsolutePath());
                 
+                currentGraph = checkLoadedGraph(result.getFirst());
+                currentPartition = null;
+                loadedCsrrgData = result.getSecond();
+                
+                displayGraphAndPartition(currentGraph, currentPartition);
+                
+                statusLabel.setText("Wczytano binarny graf: " + currentGraph.getVertexCount() + 
+                                  " wierzchołków, " + currentGraph.getUndirectedView().getEdgeCount() + " krawędzi");
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd wczytywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd wczytywania pliku");
+            }
+        }
+    }
+    
+    private void loadEdgeListGraph() {
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Listy krawędzi", "txt", "edges", "el"));
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            try {
+                statusLabel.setText("Wczytywanie listy krawędzi z " + file.getName() + "...");
+                currentGraph = GraphLoader.loadGraphFromEdgeList(file.getAbsolutePath());
+                currentPartition = null;
+                loadedCsrrgData = null;
+                
+                displayGraphAndPartition(currentGraph, currentPartition);
+                
+                statusLabel.setText("Wczytano listę krawędzi: " + currentGraph.getVertexCount() + 
+                                  " wierzchołków, " + currentGraph.getUndirectedView().getEdgeCount() + " krawędzi");
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd wczytywania pliku: " + ex.getMessage(), 
@@ -210,7 +369,7 @@ public class MainFrame extends JFrame {
                 
                 statusLabel.setText("Wczytano przypisanie: " + currentGraph.getVertexCount() + 
                                   " wierzchołków, " + currentPartition.getPartCount() + " części");
-                
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd wczytywania pliku: " + ex.getMessage(), 
@@ -239,7 +398,82 @@ public class MainFrame extends JFrame {
                 
                 statusLabel.setText("Wczytano binarne przypisanie: " + currentGraph.getVertexCount() + 
                                   " wierzchołków, " + currentPartition.getPartCount() + " części");
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd wczytywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd wczytywania pliku");
+            }
+        }
+    }
+    
+    private void loadPackedAssignment() {
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Spakowane przypisania", AssignmentFile.EXTENSION));
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            try {
+                statusLabel.setText("Wczytywanie spakowanego przypisania z " + file.getName() + "...");
+                Pair<Graph, Partition> result = GraphLoader.loadPackedAssignment(file.getAbsolutePath());
+                
+                currentGraph = result.getFirst();
+                currentPartition = result.getSecond();
+                loadedCsrrgData = null;
+                
+                displayGraphAndPartition(currentGraph, currentPartition);
+                
+                statusLabel.setText("Wczytano spakowane przypisanie: " + currentGraph.getVertexCount() + 
+                                  " wierzchołków, " + currentPartition.getPartCount() + " części");
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd wczytywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd wczytywania pliku");
+            }
+        }
+    }
+    
+    /**
+     * Nakłada zapisane przypisanie na wczytany graf, zachowując jego krawędzie
+     * Format pliku jest rozpoznawany po rozszerzeniu
+     */
+    private void applyAssignmentToCurrentGraph() {
+        if (currentGraph == null) {
+            JOptionPane.showMessageDialog(this, 
+                "Najpierw wczytaj graf", 
+                "Uwaga", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Pliki przypisań", "txt", "bin", AssignmentFile.EXTENSION));
+        
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            String name = file.getName().toLowerCase();
+            
+            try {
+                statusLabel.setText("Nakładanie przypisania z " + file.getName() + "...");
+                Partition partition;
+                if (name.endsWith(".bin")) {
+                    partition = GraphLoader.applySimpleAssignmentBinary(file.getAbsolutePath(), currentGraph);
+                } else if (name.endsWith("." + AssignmentFile.EXTENSION)) {
+                    partition = GraphLoader.applyPackedAssignment(file.getAbsolutePath(), currentGraph);
+                } else {
+                    partition = GraphLoader.applySimpleAssignmentText(file.getAbsolutePath(), currentGraph);
+                }
+                
+                currentPartition = partition;
+                displayGraphAndPartition(currentGraph, currentPartition);
                 
+                statusLabel.setText("Nałożono przypisanie: " + currentPartition.getPartCount() + 
+                                  " części, " + currentPartition.getCutEdges() + " przeciętych krawędzi");
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd wczytywania pliku: " + ex.getMessage(), 
@@ -278,7 +512,7 @@ public class MainFrame extends JFrame {
                     "Podział został zapisany pomyślnie", 
                     "Sukces", 
                     JOptionPane.INFORMATION_MESSAGE);
-                    
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd zapisywania pliku: " + ex.getMessage(), 
@@ -318,7 +552,84 @@ public class MainFrame extends JFrame {
                     "Podział został zapisany pomyślnie w formacie CSRRG", 
                     "Sukces", 
                     JOptionPane.INFORMATION_MESSAGE);
-                    
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd zapisywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd zapisywania pliku");
+            }
+        }
+    }
+    
+    private void savePartitionAsPacked() {
+        if (currentPartition == null) {
+            JOptionPane.showMessageDialog(this, 
+                "Brak podziału do zapisania", 
+                "Uwaga", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Spakowane przypisania", AssignmentFile.EXTENSION));
+        
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            // Dodaj rozszerzenie jeśli brak
+            if (!file.getName().endsWith("." + AssignmentFile.EXTENSION)) {
+                file = new File(file.getAbsolutePath() + "." + AssignmentFile.EXTENSION);
+            }
+            
+            try {
+                statusLabel.setText("Zapisywanie podziału do " + file.getName() + "...");
+                GraphSaver.savePartitionToPackedBinary(file.getAbsolutePath(), currentPartition);
+                statusLabel.setText("Zapisano podział do " + file.getName());
+                
+                JOptionPane.showMessageDialog(this, 
+                    "Podział został zapisany pomyślnie", 
+                    "Sukces", 
+                    JOptionPane.INFORMATION_MESSAGE);
+            
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Błąd zapisywania pliku: " + ex.getMessage(), 
+                    "Błąd", 
+                    JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Błąd zapisywania pliku");
+            }
+        }
+    }
+    
+    private void saveGraphAsBinary(boolean compress) {
+        if (currentGraph == null) {
+            JOptionPane.showMessageDialog(this, 
+                "Brak grafu do zapisania", 
+                "Uwaga", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Pliki binarne CSR", BinaryGraphFile.EXTENSION));
+        
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            
+            // Dodaj rozszerzenie jeśli brak
+            if (!file.getName().endsWith("." + BinaryGraphFile.EXTENSION)) {
+                file = new File(file.getAbsolutePath() + "." + BinaryGraphFile.EXTENSION);
+            }
+            
+            try {
+                statusLabel.setText("Zapisywanie binarnego grafu do " + file.getName() + "...");
+                if (compress) {
+                    GraphSaver.saveGraphToCompressedBinary(file.getAbsolutePath(), currentGraph, loadedCsrrgData);
+                } else {
+                    GraphSaver.saveGraphToBinary(file.getAbsolutePath(), currentGraph, loadedCsrrgData);
+                }
+                statusLabel.setText("Zapisano binarny graf do " + file.getName());
+            
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, 
                     "Błąd zapisywania pliku: " + ex.getMessage(), 
@@ -338,11 +649,44 @@ public class MainFrame extends JFrame {
                         "Obsługiwane formaty:\n" +
                         "- Tekstowy CSR z macierzą sąsiedztwa\n" +
                         "- CSRRG (Compressed Sparse Row Row Graph)\n" +
-                        "- Proste przypisanie (tekstowe i binarne)";
-                        
+                        "- Binarny CSR (mapowany do pamięci)\n" +
+                        "- Lista krawędzi (u v)\n" +
+                        "- Proste przypisanie (tekstowe i binarne)\n" +
+                        "- Spakowane przypisanie binarne (dowolna liczba części)";
+        
         JOptionPane.showMessageDialog(this, message, "O programie", JOptionPane.INFORMATION_MESSAGE);
     }
     
+    /**
+     * Gdy opcja indeksu jest włączona, buduje indeks krawędzi i scala powtórzone wpisy.
+     * Gdy opcja sprawdzania jest włączona, sprawdza wczytany graf i w razie problemów
+     * zwraca jego znormalizowaną wersję wraz z podsumowaniem dla użytkownika
+     */
+    private Graph checkLoadedGraph(Graph graph) {
+        if (indexEdgesOnLoad.isSelected()) {
+            graph = graph.withEdgeIndex();
+        }
+        if (!validateOnLoad.isSelected()) {
+            return graph;
+        }
+        
+        GraphValidator.Report report = GraphValidator.validate(graph);
+        if (report.isClean()) {
+            return graph;
+        }
+        
+        Graph normalized = GraphValidator.normalize(graph);
+        if (indexEdgesOnLoad.isSelected()) {
+            normalized.buildEdgeIndex();
+        }
+        JOptionPane.showMessageDialog(this,
+            "Graf został znormalizowany.\n\n" + report +
+            "\n\nLiczba krawędzi po normalizacji: " + normalized.getEdgeCount(),
+            "Sprawdzenie grafu",
+            JOptionPane.WARNING_MESSAGE);
+        return normalized;
+    }
+    
     /**
      * Wyświetla graf i podział w panelu
      */
@@ -19,7 +19,11 @@ public class ToolPanel extends JPanel {
     private JSpinner numPartsSpinner;
     private JSpinner marginSpinner;
     private JComboBox<String> algorithmComboBox;
+    private JComboBox<RefinementMethod> refinementComboBox;
     private JCheckBox useHybridCheckBox;
+    private JCheckBox parallelCheckBox;
+    private JSpinner timeLimitSpinner;
+    private JComboBox<VertexOrdering> orderingComboBox;
     private JButton partitionButton;
     private JButton resetButton;
     
@@ -49,14 +53,35 @@ public class ToolPanel extends JPanel {
         marginSpinner = new JSpinner(marginModel);
         
         // ComboBox dla algorytmu
-        String[] algorithms = {"Modulo", "Sekwencyjny", "Losowy", "DFS"};
+        String[] algorithms = {"Modulo", "Sekwencyjny", "Losowy", "DFS", "Wielopoziomowy", "Bisekcja rekurencyjna"};
         algorithmComboBox = new JComboBox<>(algorithms);
         algorithmComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
         
+        // ComboBox dla metody optymalizacji
+        refinementComboBox = new JComboBox<>(RefinementMethod.values());
+        refinementComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        refinementComboBox.setToolTipText("Fiduccia-Mattheyses działa w czasie bliskim liniowemu");
+        
         // CheckBox dla algorytmu hybrydowego
         useHybridCheckBox = new JCheckBox("Użyj algorytmu hybrydowego");
         useHybridCheckBox.setToolTipText("Wypróbuje różne strategie i wybierze najlepszą");
         
+        // CheckBox dla równoległego algorytmu hybrydowego
+        parallelCheckBox = new JCheckBox("Równolegle (wszystkie rdzenie)");
+        parallelCheckBox.setToolTipText("Uruchamia strategie algorytmu hybrydowego jednocześnie");
+        parallelCheckBox.setEnabled(false);
+        
+        // Spinner dla limitu czasu algorytmu hybrydowego
+        SpinnerNumberModel timeLimitModel = new SpinnerNumberModel(0, 0, 3600, 1);
+        timeLimitSpinner = new JSpinner(timeLimitModel);
+        timeLimitSpinner.setToolTipText("0 = bez limitu; z limitem algorytm hybrydowy szuka aż do upływu czasu");
+        timeLimitSpinner.setEnabled(false);
+        
+        // ComboBox dla kolejności wierzchołków
+        orderingComboBox = new JComboBox<>(VertexOrdering.values());
+        orderingComboBox.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        orderingComboBox.setToolTipText("Przenumerowanie poprawia lokalność pamięci; podział wraca do oryginalnych numerów");
+        
         // Przyciski
         partitionButton = new JButton("Partycjonuj graf");
         partitionButton.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -80,6 +105,8 @@ public class ToolPanel extends JPanel {
         // Listenery
         useHybridCheckBox.addActionListener(e -> {
             algorithmComboBox.setEnabled(!useHybridCheckBox.isSelected());
+            parallelCheckBox.setEnabled(useHybridCheckBox.isSelected());
+            timeLimitSpinner.setEnabled(useHybridCheckBox.isSelected());
         });
         
         partitionButton.addActionListener(e -> performPartitioning());
@@ -133,14 +160,49 @@ public class ToolPanel extends JPanel {
         gbc.weightx = 0.6;
         parametersPanel.add(algorithmComboBox, gbc);
         
-        // Checkbox hybrydowy
+        // Metoda optymalizacji
         gbc.gridx = 0;
         gbc.gridy = 3;
+        gbc.weightx = 0.4;
+        parametersPanel.add(new JLabel("Optymalizacja:"), gbc);
+        
+        gbc.gridx = 1;
+        gbc.weightx = 0.6;
+        parametersPanel.add(refinementComboBox, gbc);
+        
+        // Checkbox hybrydowy
+        gbc.gridx = 0;
+        gbc.gridy = 4;
         gbc.gridwidth = 2;
         gbc.weightx = 1.0;
         parametersPanel.add(useHybridCheckBox, gbc);
         
-        parametersPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 150));
+        // Checkbox równoległy
+        gbc.gridy = 5;
+        parametersPanel.add(parallelCheckBox, gbc);
+        
+        // Limit czasu
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0.4;
+        parametersPanel.add(new JLabel("Limit czasu (s):"), gbc);
+        
+        gbc.gridx = 1;
+        gbc.weightx = 0.6;
+        parametersPanel.add(timeLimitSpinner, gbc);
+        
+        // Kolejność wierzchołków
+        gbc.gridx = 0;
+        gbc.gridy = 7;
+        gbc.weightx = 0.4;
+        parametersPanel.add(new JLabel("Kolejność:"), gbc);
+        
+        gbc.gridx = 1;
+        gbc.weightx = 0.6;
+        parametersPanel.add(orderingComboBox, gbc);
+        
+        parametersPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 285));
         
         // Panel przycisków
         JPanel buttonPanel = new JPanel();
@@ -173,7 +235,8 @@ public class ToolPanel extends JPanel {
     public void updateGraphInfo(Graph graph, Partition partition) {
         if (graph != null) {
             graphInfoLabel.setText(String.format("Wierzchołki: %d, Krawędzie: %d", 
-                                               graph.getVertexCount(), graph.getEdgeCount()));
+                                               graph.getVertexCount(),
+                                               graph.getUndirectedView().getEdgeCount()));
             partitionButton.setEnabled(true);
             
             if (partition != null) {
@@ -224,13 +287,27 @@ public class ToolPanel extends JPanel {
         
         // Gęstość grafu
         sb.append("\nGęstość grafu:\n");
-        sb.append(String.format("  %.2f%%\n", graph.getDensity() * 100));
+        sb.append(String.format("  %.2f%%\n", graph.getUndirectedView().getDensity() * 100));
         
         // Efektywność podziału
         sb.append("\nEfektywność:\n");
-        double cutRatio = (double) partition.getCutEdges() / graph.getEdgeCount();
+        // Przecięte krawędzie są liczone w widoku nieskierowanym, więc mianownik pochodzi z tego samego widoku
+        double cutRatio = (double) partition.getCutEdges() / graph.getUndirectedView().getEdgeCount();
         sb.append(String.format("  Przecięte/Wszystkie: %.1f%%\n", cutRatio * 100));
         
+        // Przecięte krawędzie między parami części (utrzymywane przyrostowo przez podział)
+        if (partition.getConnectivity() != null) {
+            sb.append("\nPrzecięte krawędzie między częściami:\n");
+            for (int a = 0; a < partition.getPartCount(); a++) {
+                for (int b = a + 1; b < partition.getPartCount(); b++) {
+                    int cut = partition.getCutEdgesBetween(a, b);
+                    if (cut > 0) {
+                        sb.append(String.format("  %d-%d: %d\n", a, b, cut));
+                    }
+                }
+            }
+        }
+        
         detailsTextArea.setText(sb.toString());
         detailsTextArea.setCaretPosition(0);
     }
@@ -251,6 +328,9 @@ public class ToolPanel extends JPanel {
         // Pobierz parametry
         int numParts = (Integer) numPartsSpinner.getValue();
         int marginPercent = (Integer) marginSpinner.getValue();
+        RefinementMethod refinement = (RefinementMethod) refinementComboBox.getSelectedItem();
+        int timeLimitSeconds = (Integer) timeLimitSpinner.getValue();
+        VertexOrdering ordering = (VertexOrdering) orderingComboBox.getSelectedItem();
         
         // Walidacja
         if (numParts > graph.getVertexCount()) {
@@ -271,11 +351,38 @@ public class ToolPanel extends JPanel {
             protected Partition doInBackground() throws Exception {
                 publish("Rozpoczynam partycjonowanie...");
                 
+                if (ordering != VertexOrdering.NONE) {
+                    publish("Przenumerowanie wierzchołków: " + ordering);
+                }
+                return ReorderedGraph.partition(graph, ordering, this::partitionGraph);
+            }
+            
+            /**
+             * Dzieli graf wybraną metodą (graf może być przenumerowany)
+             */
+            private Partition partitionGraph(Graph graph) {
                 Partition partition;
                 
-                if (useHybridCheckBox.isSelected()) {
+                if (useHybridCheckBox.isSelected() && timeLimitSeconds > 0 && parallelCheckBox.isSelected()) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    publish("Używam równoległego algorytmu hybrydowego z limitem czasu " + timeLimitSeconds +
+                            " s (" + threads + " wątków)...");
+                    partition = HybridAlgorithm.findBestPartitionHybridParallelWithDeadline(graph, numParts,
+                                                                                            marginPercent, refinement,
+                                                                                            timeLimitSeconds * 1000L,
+                                                                                            threads);
+                } else if (useHybridCheckBox.isSelected() && timeLimitSeconds > 0) {
+                    publish("Używam algorytmu hybrydowego z limitem czasu " + timeLimitSeconds + " s...");
+                    partition = HybridAlgorithm.findBestPartitionHybridWithDeadline(graph, numParts, marginPercent,
+                                                                                    refinement, timeLimitSeconds * 1000L);
+                } else if (useHybridCheckBox.isSelected() && parallelCheckBox.isSelected()) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    publish("Używam równoległego algorytmu hybrydowego (" + threads + " wątków)...");
+                    partition = HybridAlgorithm.findBestPartitionHybridParallel(graph, numParts, marginPercent,
+                                                                                refinement, threads);
+                } else if (useHybridCheckBox.isSelected()) {
                     publish("Używam algorytmu hybrydowego...");
-                    partition = HybridAlgorithm.findBestPartitionHybrid(graph, numParts, marginPercent);
+                    partition = HybridAlgorithm.findBestPartitionHybrid(graph, numParts, marginPercent, refinement);
                 } else {
                     String algorithm = (String) algorithmComboBox.getSelectedItem();
                     publish("Inicjalizacja metodą: " + algorithm);
@@ -293,13 +400,19 @@ public class ToolPanel extends JPanel {
                         case "DFS":
                             partition = PartitionInitializer.initializeDFS(graph, numParts, marginPercent);
                             break;
+                        case "Wielopoziomowy":
+                            partition = MultilevelPartitioner.partitionMultilevel(graph, numParts, marginPercent);
+                            break;
+                        case "Bisekcja rekurencyjna":
+                            partition = RecursiveBisection.partitionRecursiveBisection(graph, numParts, marginPercent);
+                            break;
                         default:
                             partition = PartitionInitializer.initializeModulo(graph, numParts, marginPercent);
                     }
                     
                     if (partition != null) {
-                        publish("Optymalizacja algorytmem Kernighana-Lina...");
-                        KernighanLin.optimizeWithKernighanLin(graph, partition, 0);
+                        publish("Optymalizacja metodą: " + refinement);
+                        refinement.optimize(graph, partition, 0);
                     }
                 }
                 
@@ -0,0 +1,90 @@
+package com.example.graphpartitioner.utils;
+
+import java.util.Arrays;
+
+/**
+ * Zbiór liczb całkowitych z przedziału [0, capacity) z dodawaniem,
+ * usuwaniem i sprawdzaniem w O(1) oraz iteracją po indeksach bez alokacji
+ */
+public class IndexedIntSet {
+    private final int[] elements;    // Elementy zbioru na pozycjach [0, size)
+    private final int[] positions;   // Pozycja elementu w tablicy elements lub -1
+    private int size;
+    
+    public IndexedIntSet(int capacity) {
+        this.elements = new int[capacity];
+        this.positions = new int[capacity];
+        this.size = 0;
+        
+        Arrays.fill(positions, -1);
+    }
+    
+    private IndexedIntSet(IndexedIntSet other) {
+        this.elements = Arrays.copyOf(other.elements, other.elements.length);
+        this.positions = Arrays.copyOf(other.positions, other.positions.length);
+        this.size = other.size;
+    }
+    
+    /**
+     * Dodaje element, zwraca false jeśli już był w zbiorze
+     */
+    public boolean add(int value) {
+        if (positions[value] != -1) {
+            return false;
+        }
+        
+        elements[size] = value;
+        positions[value] = size;
+        size++;
+        return true;
+    }
+    
+    /**
+     * Usuwa element, przenosząc na jego miejsce ostatni; zwraca false jeśli go nie było
+     */
+    public boolean remove(int value) {
+        int position = positions[value];
+        if (position == -1) {
+            return false;
+        }
+        
+        int last = elements[--size];
+        elements[position] = last;
+        positions[last] = position;
+        positions[value] = -1;
+        return true;
+    }
+    
+    public boolean contains(int value) {
+        return positions[value] != -1;
+    }
+    
+    /**
+     * Zwraca element na danej pozycji (kolejność zmienia się przy usuwaniu)
+     */
+    public int get(int index) {
+        return elements[index];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Zwraca elementy zbioru jako nową tablicę
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+    
+    /**
+     * Tworzy głęboką kopię zbioru
+     */
+    public IndexedIntSet copy() {
+        return new IndexedIntSet(this);
+    }
+}
\ No newline at end of file
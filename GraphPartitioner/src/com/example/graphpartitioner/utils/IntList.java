@@ -0,0 +1,77 @@
+package com.example.graphpartitioner.utils;
+
+import java.util.Arrays;
+
+/**
+ * Rosnąca lista liczb całkowitych przechowywana w tablicy int[],
+ * bez opakowywania elementów w obiekty Integer
+ */
+public class IntList {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    
+    private int[] elements;
+    private int size;
+    
+    public IntList() {
+        this(16);
+    }
+    
+    public IntList(int initialCapacity) {
+        this.elements = new int[Math.max(1, initialCapacity)];
+        this.size = 0;
+    }
+    
+    /**
+     * Dodaje element na końcu listy (zamortyzowane O(1))
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, newCapacity(size + 1));
+        }
+        elements[size++] = value;
+    }
+    
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[index];
+    }
+    
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        elements[index] = value;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Usuwa wszystkie elementy, zachowując zaalokowaną pamięć
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Zwraca kopię elementów o długości równej rozmiarowi listy
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+    
+    private int newCapacity(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        long grown = elements.length + (elements.length >> 1) + 1L;
+        return (int) Math.max(minCapacity, Math.min(grown, MAX_CAPACITY));
+    }
+}
\ No newline at end of file